@@ -16,9 +16,29 @@ public class Constants {
 
     public static final int USER_MOVE = 0;
     public static final int COMP_MOVE = 1;
+    public static final int EMPTY_CELL = -1;
 
     public static final int ITERATIONS = 1000;
     public static final int SIMULATIONS = 5;
+    // The number of simulations each thread runs from an explored node when the playouts are shared between threads.
+    public static final int LEAF_SIMULATIONS_PER_THREAD = 256;
+    // The number of threads the computer searches with. Searching with more threads is opt-in, since it changes
+    // how the iterations are split and so how strongly the computer plays.
+    public static final int THREADS = 1;
+    // The time the computer searches for each move in milliseconds, or 0 to search for a fixed number of iterations.
+    public static final long MOVE_TIME_MILLIS = 0;
+    // The maximum number of nodes kept in the search tree, or 0 for no limit.
+    public static final int MAX_NODES = 0;
+
+    // The engine the computer uses to choose its moves.
+    public static final Engine ENGINE = Engine.MCTS;
+    // The number of empty cells at or below which the solver engine solves a position outside the opening book.
+    // Earlier positions can take the solver minutes, so the computer searches them with MCTS instead.
+    public static final int SOLVER_MAX_EMPTY_CELLS = 24;
+    // The opening book file the computer takes its first moves from, if the file exists.
+    public static final String OPENING_BOOK_FILE = "opening-book.bin";
 
     public static double UCT_EXPLORATION_CONSTANT = 3.5;
+    // The number of visits at which a node's own score and its RAVE score are weighted equally.
+    public static final double RAVE_EQUIVALENCE = 1000;
 }
@@ -0,0 +1,16 @@
+package application;
+
+/**
+ * This enum lists the engines the computer can use to choose its moves.
+ */
+public enum Engine {
+    /**
+     * Monte Carlo tree search, which shows the statistics of its search before and after each move.
+     */
+    MCTS,
+    /**
+     * The exact negamax solver, which plays a best move from the opening book or once few empty cells remain,
+     * and Monte Carlo tree search before then, since the solver can take minutes early in the game.
+     */
+    SOLVER
+}
@@ -1,16 +1,24 @@
 package application;
 
+import model.book.OpeningBook;
 import model.environment.Board;
-import model.environment.Disc;
 import model.environment.GameState;
+import view.Disc;
 import view.GameBoard;
 import view.GameOverBox;
 import view.MCTSInfoBox;
+import view.SolverInfoBox;
 import model.montecarlotreesearch.MCTSTreeNode;
 import model.montecarlotreesearch.MCTSAlgorithm;
+import model.solver.NegamaxSolver;
 import javafx.animation.TranslateTransition;
 import javafx.util.Duration;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 import static application.Constants.TILE_SIZE;
 
 /**
@@ -22,7 +30,38 @@ public class GameBoardController {
     private static boolean userMove = true;
     private static Board board = new Board();
     private static GameState gameState = new GameState(board);
-    private static MCTSTreeNode rootNode = new MCTSTreeNode(gameState);
+    private static MCTSTreeNode rootNode = createRootNode(gameState);
+    private static Engine engine = Constants.ENGINE;
+    private static NegamaxSolver solver;
+
+    static {
+        Path bookFile = Paths.get(Constants.OPENING_BOOK_FILE);
+        if (Files.exists(bookFile)) {
+            try {
+                MCTSAlgorithm.setOpeningBook(OpeningBook.open(bookFile));
+            } catch (IOException e) {
+                // The file is unreadable or not a book, so play without the book, searching for every move.
+            }
+        }
+    }
+
+    /**
+     * Sets the engine the computer uses to choose its moves.
+     *
+     * @param engine the engine to use.
+     */
+    public static void setEngine(Engine engine) {
+        GameBoardController.engine = engine;
+    }
+
+    /**
+     * Returns the engine the computer uses to choose its moves.
+     *
+     * @return the engine in use.
+     */
+    public static Engine getEngine() {
+        return engine;
+    }
 
     /**
      * Places the disc in the next available row in a given column.
@@ -58,21 +97,12 @@ public class GameBoardController {
      * @param row      the row to place the disc.
      */
     private static void addDiscToBoard(int playerID, int column, int row) {
-        Disc disc = gameState.getBoard().performMove(playerID, column, row);
-        // Find the successor node from the current node that represents the next move.
-        MCTSTreeNode nextNode = null;
-        for (MCTSTreeNode node : rootNode.getSuccessorStates()) {
-            if (node.getGameState().getBoard().equals(gameState.getBoard())) {
-                nextNode = node;
-            }
-        }
-        if (nextNode == null) {
-            nextNode = new MCTSTreeNode(gameState);
-            nextNode.setParentNode(rootNode);
-        }
-        rootNode = nextNode;
+        gameState.getBoard().performMove(playerID, column, row);
+        // Promote the successor node that represents the next move, releasing the rest of the tree.
+        rootNode = MCTSAlgorithm.advanceRoot(rootNode, gameState.getBoard());
 
         // Add the disc to the board.
+        Disc disc = new Disc(playerID == Constants.USER_MOVE);
         GameBoard.addDiscToRoot(disc);
         disc.setTranslateX(column * (TILE_SIZE + 5) + TILE_SIZE / 4);
         // Begin the animation to add the disc to the board.
@@ -145,19 +175,77 @@ public class GameBoardController {
      * by displaying the information box containing details about the current state of the MCTS tree.
      */
     private static void showPreMCTSInformation() {
+        if (solverMoves()) {
+            // The solver has no tree to show, so it moves straight away.
+            computerTurn();
+            return;
+        }
         MCTSInfoBox.preMCTSDisplay(rootNode);
 
     }
 
+    /**
+     * Checks if the solver chooses the computer's next move. The solver engine only solves positions that
+     * are in the opening book or that have few empty cells left, since earlier positions can take it minutes,
+     * and the computer searches the rest with MCTS.
+     *
+     * @return true if the solver chooses the move, false if MCTS searches for it.
+     */
+    private static boolean solverMoves() {
+        if (engine != Engine.SOLVER) {
+            return false;
+        }
+        OpeningBook book = MCTSAlgorithm.getOpeningBook();
+        int emptyCells = Constants.NUM_ROWS * Constants.NUM_COLS - board.getTotalMoves();
+        return emptyCells <= Constants.SOLVER_MAX_EMPTY_CELLS
+                || book != null && book.findColumn(board, Constants.COMP_MOVE) >= 0;
+    }
+
     /**
      * Executes the MCTS algorithm to find the computer's next turn
      * and displays the information box containing details about the results of the MCTS tree.
+     * When the solver chooses the move, the opening book or the solver finds it and the information box
+     * shows the score of the position and the solver's search statistics instead.
      */
     public static void computerTurn() {
-        int col = MCTSAlgorithm.findNextMove(rootNode);
+        if (solverMoves()) {
+            OpeningBook book = MCTSAlgorithm.getOpeningBook();
+            int col = book == null ? -1 : book.findColumn(board, Constants.COMP_MOVE);
+            if (col >= 0) {
+                SolverInfoBox.postSolverDisplay(col, book.findScore(board, Constants.COMP_MOVE), null);
+                return;
+            }
+            if (solver == null) {
+                solver = new NegamaxSolver();
+            }
+            GameState state = new GameState(board);
+            state.setPlayerNum(Constants.USER_MOVE);
+            col = solver.findBestMove(state);
+            SolverInfoBox.postSolverDisplay(col, solver.getLastScore(), solver);
+            return;
+        }
+        int col;
+        if (Constants.MOVE_TIME_MILLIS > 0) {
+            col = MCTSAlgorithm.findNextMove(rootNode, Constants.MOVE_TIME_MILLIS);
+        } else {
+            col = MCTSAlgorithm.findNextMove(rootNode);
+        }
         MCTSInfoBox.postMCTSDisplay(rootNode, col);
     }
 
+    /**
+     * Creates the root of the search tree for a new game. The user moves first, so the root is marked as
+     * if the computer made the last move, and the roots created as moves are played alternate from it.
+     *
+     * @param state the game state of the new game.
+     * @return the root node.
+     */
+    private static MCTSTreeNode createRootNode(GameState state) {
+        MCTSTreeNode root = new MCTSTreeNode(state);
+        root.getGameState().setPlayerNum(Constants.COMP_MOVE);
+        return root;
+    }
+
     /**
      * Clears the board and restarts the game.
      */
@@ -165,7 +253,7 @@ public class GameBoardController {
         GameBoard.clearDiscs();
         board = new Board();
         gameState = new GameState(board);
-        rootNode = new MCTSTreeNode(gameState);
+        rootNode = createRootNode(gameState);
         MCTSAlgorithm.setIterations(Constants.ITERATIONS);
         userMove = true;
         playable = true;
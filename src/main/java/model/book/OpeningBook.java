@@ -0,0 +1,142 @@
+package model.book;
+
+import model.environment.Board;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class looks up the best moves of positions in an opening book file, which is mapped into memory
+ * rather than read, so opening a book is fast and its pages are shared with any other process using it.
+ * <p>
+ * The file starts with a header of the magic number, the format version, and the number of records. Each
+ * record holds a position key, the column of the best move, and the exact score of the position for the
+ * player to move, and the records are sorted by key so a position is found with a binary search.
+ * Files are written by {@link OpeningBookGenerator}.
+ */
+public class OpeningBook {
+    static final int MAGIC = 0x43344F42;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 12;
+    static final int RECORD_SIZE = 10;
+
+    private final ByteBuffer records;
+    private final int recordCount;
+
+    /**
+     * Constructor, reads the header of a mapped book file.
+     *
+     * @param buffer the contents of the book file.
+     * @throws IOException if the contents are not an opening book.
+     */
+    private OpeningBook(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("The file is not an opening book.");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("The opening book has unsupported version " + buffer.getInt(4) + ".");
+        }
+        recordCount = buffer.getInt(8);
+        if (recordCount < 0 || buffer.capacity() != HEADER_SIZE + (long) recordCount * RECORD_SIZE) {
+            throw new IOException("The opening book is truncated or corrupt.");
+        }
+        records = buffer;
+    }
+
+    /**
+     * Opens an opening book by mapping its file into memory.
+     *
+     * @param file the path of the book file.
+     * @return the opening book.
+     * @throws IOException if the file cannot be read or is not an opening book.
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed.
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new OpeningBook(buffer);
+        }
+    }
+
+    /**
+     * Returns the key of a position in the book.
+     *
+     * @param board  the board of the position.
+     * @param player the player to move.
+     * @return the key of the position.
+     */
+    public static long getKey(Board board, int player) {
+        return (board.getPositionCode() << 1) | player;
+    }
+
+    /**
+     * Returns the number of positions in the book.
+     *
+     * @return the number of records.
+     */
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * Finds the best move of a position.
+     *
+     * @param board  the board of the position.
+     * @param player the player to move.
+     * @return the column of the best move, or -1 if the position is not in the book.
+     */
+    public int findColumn(Board board, int player) {
+        int record = find(getKey(board, player));
+        return record < 0 ? -1 : records.get(offset(record) + 8);
+    }
+
+    /**
+     * Finds the exact score of a position for the player to move, on the scale used by the solver.
+     *
+     * @param board  the board of the position.
+     * @param player the player to move.
+     * @return the score of the position, or {@link Integer#MIN_VALUE} if the position is not in the book.
+     */
+    public int findScore(Board board, int player) {
+        int record = find(getKey(board, player));
+        return record < 0 ? Integer.MIN_VALUE : records.get(offset(record) + 9);
+    }
+
+    /**
+     * Finds the record of a key with a binary search. Only absolute reads are used, so a book can be
+     * searched from several threads at once.
+     *
+     * @param key the key of the position.
+     * @return the index of the record, or -1 if the key is not in the book.
+     */
+    private int find(long key) {
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleKey = records.getLong(offset(middle));
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position of a record in the file.
+     *
+     * @param record the index of the record.
+     * @return the offset of the record in bytes.
+     */
+    private static int offset(int record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+}
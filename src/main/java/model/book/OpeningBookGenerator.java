@@ -0,0 +1,157 @@
+package model.book;
+
+import application.Constants;
+import model.environment.Board;
+import model.environment.GameState;
+import model.solver.NegamaxSolver;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * This class is a tool that writes an opening book of the positions where the computer is to move in the
+ * first plies of the game, each with its best move and exact score from {@link NegamaxSolver}.
+ * <p>
+ * Run it with the path of the book file to write and the number of plies to cover. Positions near the
+ * start of the game take the solver a long time, so the book is meant to be built once, offline, and
+ * shipped with the game.
+ */
+public class OpeningBookGenerator {
+
+    private final NegamaxSolver solver;
+    private final Set<Long> visited = new HashSet<>();
+    private final Map<Long, Integer> entries = new TreeMap<>();
+    private long nodeCount;
+    private long searchNanos;
+
+    /**
+     * Constructor, creates a generator that solves positions with the given solver.
+     *
+     * @param solver the solver to find the best moves and scores with.
+     */
+    private OpeningBookGenerator(NegamaxSolver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Writes the opening book for the start of the game, where the user moves first.
+     *
+     * @param args the path of the book file and the number of plies to cover.
+     * @throws IOException if the book file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: OpeningBookGenerator <book file> <plies>");
+            System.exit(1);
+        }
+        OpeningBookGenerator generator = new OpeningBookGenerator(new NegamaxSolver());
+        generator.addPositions(new Board(), Constants.USER_MOVE, Integer.parseInt(args[1]));
+        generator.write(Paths.get(args[0]));
+        System.out.printf("Wrote %d positions to %s, searching %d positions at %.0f positions per second.%n",
+                generator.entries.size(), args[0], generator.nodeCount,
+                generator.searchNanos == 0 ? 0 : generator.nodeCount * 1e9 / generator.searchNanos);
+    }
+
+    /**
+     * Writes an opening book of the positions where the computer is to move, up to the given number of
+     * plies after a starting position.
+     *
+     * @param file   the path of the book file to write.
+     * @param start  the board of the starting position.
+     * @param player the player to move in the starting position.
+     * @param plies  the number of moves after the starting position to cover.
+     * @param solver the solver to find the best moves and scores with.
+     * @return the number of positions written.
+     * @throws IOException if the book file cannot be written.
+     */
+    public static int generate(Path file, Board start, int player, int plies, NegamaxSolver solver)
+            throws IOException {
+        OpeningBookGenerator generator = new OpeningBookGenerator(solver);
+        generator.addPositions(new Board(start), player, plies);
+        generator.write(file);
+        return generator.entries.size();
+    }
+
+    /**
+     * Adds every position reachable from the board within the given number of plies to the book, solving
+     * those where the computer is to move. A position's mirror image is added along with it, so only one
+     * of the two is searched.
+     *
+     * @param board  the board of the position, which is restored before returning.
+     * @param player the player to move.
+     * @param plies  the number of moves to look ahead.
+     */
+    private void addPositions(Board board, int player, int plies) {
+        if (board.checkStatus() != Constants.IN_PROGRESS) {
+            return;
+        }
+        Board mirroredBoard = board.getMirroredBoard();
+        if (!visited.add(OpeningBook.getKey(board, player))) {
+            return;
+        }
+        visited.add(OpeningBook.getKey(mirroredBoard, player));
+
+        if (player == Constants.COMP_MOVE) {
+            GameState state = new GameState(board);
+            state.setPlayerNum(Constants.USER_MOVE);
+            int column = solver.findBestMove(state);
+            int score = solver.getLastScore();
+            nodeCount += solver.getNodeCount();
+            searchNanos += solver.getSearchNanos();
+            entries.put(OpeningBook.getKey(board, player), pack(column, score));
+            entries.putIfAbsent(OpeningBook.getKey(mirroredBoard, player), pack(Constants.NUM_COLS - 1 - column, score));
+        }
+
+        if (plies == 0) {
+            return;
+        }
+        int opponent = player == Constants.USER_MOVE ? Constants.COMP_MOVE : Constants.USER_MOVE;
+        for (int column = 0; column < Constants.NUM_COLS; column++) {
+            int row = board.getNextEmptyRow(column);
+            if (row < 0) {
+                continue;
+            }
+            board.performMove(player, column, row);
+            addPositions(board, opponent, plies - 1);
+            board.undoMove(column);
+        }
+    }
+
+    /**
+     * Writes the book entries to a file, in the order of their keys.
+     *
+     * @param file the path of the book file to write.
+     * @throws IOException if the book file cannot be written.
+     */
+    private void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<Long, Integer> entry : entries.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeByte(entry.getValue() >> 8);
+                out.writeByte(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Packs the best move and score of a position into one integer.
+     *
+     * @param column the column of the best move.
+     * @param score  the exact score of the position.
+     * @return the column in the second byte and the score in the lowest byte.
+     */
+    private static int pack(int column, int score) {
+        return column << 8 | (score & 0xFF);
+    }
+}
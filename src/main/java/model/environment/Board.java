@@ -1,30 +1,74 @@
 package model.environment;
 
 import application.Constants;
-import javafx.geometry.Point2D;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
 
 import static application.Constants.NUM_COLS;
 import static application.Constants.NUM_ROWS;
 
 /**
- * This class represents a possible connect 4 board using a 2D array to represent
+ * This class represents a possible connect 4 board using two bitboards to represent
  * the board locations.
+ * <p>
+ * Each column occupies {@code NUM_ROWS + 1} consecutive bits, starting with the bottom row. The extra
+ * bit at the top of each column is a sentinel that is never set, which stops shifted lines from
+ * wrapping into the next column.
+ * <p>
+ * A 64-bit Zobrist key is kept up to date as discs are placed so boards can be compared and hashed cheaply.
+ * The key of the left-right mirror image of the board is kept alongside it so mirrored positions can share
+ * a canonical key.
  */
 public class Board {
 
-    private static BoardLines boardLines = new BoardLines();
-    private Disc[][] boardValues;
+    private static final int COLUMN_HEIGHT = NUM_ROWS + 1;
+    private static final int CAPACITY = NUM_COLS * NUM_ROWS;
+    private static final long ZOBRIST_SEED = 0x5DEECE66DL;
+    private static final long[] USER_ZOBRIST_KEYS = new long[NUM_COLS * COLUMN_HEIGHT];
+    private static final long[] COMP_ZOBRIST_KEYS = new long[NUM_COLS * COLUMN_HEIGHT];
+    private static final int[] MIRROR_POSITIONS = new int[NUM_COLS * COLUMN_HEIGHT];
+    private static final long BOTTOM_MASK;
+    private static final long BOARD_MASK;
+
+    private long userDiscs;
+    private long occupied;
+    private long lastMove;
+    private long zobristKey;
+    private long mirrorKey;
     private int totalMoves;
 
+    static {
+        if (NUM_COLS * COLUMN_HEIGHT > Long.SIZE) {
+            throw new IllegalStateException("The board is too large to be stored in a bitboard.");
+        }
+        // Use a fixed seed so keys are identical between runs.
+        SplittableRandom random = new SplittableRandom(ZOBRIST_SEED);
+        for (int position = 0; position < USER_ZOBRIST_KEYS.length; position++) {
+            USER_ZOBRIST_KEYS[position] = random.nextLong();
+            COMP_ZOBRIST_KEYS[position] = random.nextLong();
+            MIRROR_POSITIONS[position] = (NUM_COLS - 1 - position / COLUMN_HEIGHT) * COLUMN_HEIGHT
+                    + position % COLUMN_HEIGHT;
+        }
+        long bottom = 0L;
+        for (int column = 0; column < NUM_COLS; column++) {
+            bottom |= 1L << (column * COLUMN_HEIGHT);
+        }
+        BOTTOM_MASK = bottom;
+        // Every position below the sentinels.
+        BOARD_MASK = bottom * ((1L << NUM_ROWS) - 1);
+    }
+
     /**
      * Constructor
      */
     public Board() {
-        boardValues = new Disc[NUM_COLS][NUM_ROWS];
+        userDiscs = 0L;
+        occupied = 0L;
+        lastMove = 0L;
+        zobristKey = 0L;
+        mirrorKey = 0L;
         totalMoves = 0;
     }
 
@@ -34,10 +78,25 @@ public class Board {
      * @param board copies the existing board into this instance.
      */
     public Board(Board board) {
-        this.boardValues = new Disc[NUM_COLS][NUM_ROWS];
-        for (int col = 0; col < NUM_COLS; col++) {
-            boardValues[col] = Arrays.copyOf(board.boardValues[col], board.boardValues[col].length);
-        }
+        this.userDiscs = board.userDiscs;
+        this.occupied = board.occupied;
+        this.lastMove = board.lastMove;
+        this.zobristKey = board.zobristKey;
+        this.mirrorKey = board.mirrorKey;
+        this.totalMoves = board.getTotalMoves();
+    }
+
+    /**
+     * Copies the given board into this instance without allocating a new board.
+     *
+     * @param board the board to copy.
+     */
+    public void copyFrom(Board board) {
+        this.userDiscs = board.userDiscs;
+        this.occupied = board.occupied;
+        this.lastMove = board.lastMove;
+        this.zobristKey = board.zobristKey;
+        this.mirrorKey = board.mirrorKey;
         this.totalMoves = board.getTotalMoves();
     }
 
@@ -50,47 +109,149 @@ public class Board {
         return totalMoves;
     }
 
+    /**
+     * Returns the bitboard of the user's discs.
+     *
+     * @return the positions of the user's discs.
+     */
+    long getUserDiscs() {
+        return userDiscs;
+    }
+
+    /**
+     * Returns the bitboard of the computer's discs.
+     *
+     * @return the positions of the computer's discs.
+     */
+    long getCompDiscs() {
+        return occupied ^ userDiscs;
+    }
+
+    /**
+     * Returns the Zobrist key of the board.
+     *
+     * @return a 64-bit key that is equal for boards with the same discs in the same positions.
+     */
+    public long getKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Returns an exact code for the positions of the discs. Adding the bottom row to the occupied positions
+     * sets one bit above the top disc of each column, which marks the height of the column, so the code
+     * is different for every board.
+     *
+     * @return a code that is equal only for boards with the same discs in the same positions.
+     */
+    public long getPositionCode() {
+        return userDiscs + occupied + BOTTOM_MASK;
+    }
+
+    /**
+     * Checks if the board is the same as its left-right mirror image.
+     *
+     * @return true if the board is symmetric, otherwise false.
+     */
+    public boolean isSymmetric() {
+        return zobristKey == mirrorKey && mirrorBits(occupied) == occupied && mirrorBits(userDiscs) == userDiscs;
+    }
+
+    /**
+     * Reflects the board left to right, so a disc in column c moves to column {@code NUM_COLS - 1 - c}.
+     */
+    public void mirror() {
+        userDiscs = mirrorBits(userDiscs);
+        occupied = mirrorBits(occupied);
+        lastMove = mirrorBits(lastMove);
+        long key = zobristKey;
+        zobristKey = mirrorKey;
+        mirrorKey = key;
+    }
+
+    /**
+     * Returns a copy of the board reflected left to right.
+     *
+     * @return the mirror image of the board.
+     */
+    public Board getMirroredBoard() {
+        Board board = new Board(this);
+        board.mirror();
+        return board;
+    }
+
     /**
      * Adds a disc to the board.
      *
      * @param player the player who placed the disc.
      * @param column the column to place the disc.
      * @param row    the row to place the disc.
-     * @return returns the disc that was added.
      */
-    public Disc performMove(int player, int column, int row) {
+    public void performMove(int player, int column, int row) {
         this.totalMoves++;
-        boolean userMove = player == Constants.USER_MOVE;
-        return boardValues[column][row] = new Disc(userMove);
+        int position = cellIndex(column, row);
+        long move = 1L << position;
+        occupied |= move;
+        if (player == Constants.USER_MOVE) {
+            userDiscs |= move;
+            zobristKey ^= USER_ZOBRIST_KEYS[position];
+            mirrorKey ^= USER_ZOBRIST_KEYS[MIRROR_POSITIONS[position]];
+        } else {
+            zobristKey ^= COMP_ZOBRIST_KEYS[position];
+            mirrorKey ^= COMP_ZOBRIST_KEYS[MIRROR_POSITIONS[position]];
+        }
+        lastMove = move;
     }
 
     /**
-     * Checks for a user win, computer win, draw, or if the game is still in progress.
+     * Removes the top disc from a column, reversing the last move made in that column.
      *
-     * @return a double constant representing a user win, computer win, draw, or still in progress.
+     * @param column the column to remove the disc from.
      */
-    public double checkStatus() {
-        double winner = checkForWinInLine(boardLines.getHorizontalLines());
-        if (winner != Constants.IN_PROGRESS) {
-            return winner;
+    public void undoMove(int column) {
+        long move = Long.highestOneBit(occupied & columnMask(column));
+        if (move == 0L) {
+            throw new IllegalArgumentException("Column " + column + " does not contain a disc to remove.");
         }
-
-        winner = checkForWinInLine(boardLines.getVerticalLines());
-        if (winner != Constants.IN_PROGRESS) {
-            return winner;
-        }
-
-        winner = checkForWinInLine(boardLines.getUpwardDiagonalLines());
-        if (winner != Constants.IN_PROGRESS) {
-            return winner;
+        int position = Long.numberOfTrailingZeros(move);
+        if ((userDiscs & move) != 0) {
+            userDiscs ^= move;
+            zobristKey ^= USER_ZOBRIST_KEYS[position];
+            mirrorKey ^= USER_ZOBRIST_KEYS[MIRROR_POSITIONS[position]];
+        } else {
+            zobristKey ^= COMP_ZOBRIST_KEYS[position];
+            mirrorKey ^= COMP_ZOBRIST_KEYS[MIRROR_POSITIONS[position]];
         }
+        occupied ^= move;
+        // The previous move is not known, so checkStatus falls back to checking the whole board.
+        lastMove = 0L;
+        this.totalMoves--;
+    }
 
-        winner = checkForWinInLine(boardLines.getDownwardDiagonalLines());
-        if (winner != Constants.IN_PROGRESS) {
-            return winner;
+    /**
+     * Checks for a user win, computer win, draw, or if the game is still in progress.
+     * <p>
+     * Only the lines through the last disc placed are checked, since any earlier line of four would
+     * already have ended the game. The whole board is checked if no move has been recorded.
+     *
+     * @return a double constant representing a user win, computer win, draw, or still in progress.
+     */
+    public double checkStatus() {
+        if (lastMove == 0L) {
+            if (hasFourInARow(userDiscs)) {
+                return Constants.USER_WIN;
+            }
+            if (hasFourInARow(occupied ^ userDiscs)) {
+                return Constants.COMP_WIN;
+            }
+        } else {
+            boolean userMove = (userDiscs & lastMove) != 0;
+            long discs = userMove ? userDiscs : occupied ^ userDiscs;
+            if (hasFourThrough(discs, lastMove)) {
+                return userMove ? Constants.USER_WIN : Constants.COMP_WIN;
+            }
         }
 
-        if (findPossibleActions().isEmpty()) {
+        if (totalMoves == CAPACITY) {
             return Constants.DRAW_SCORE;
         } else {
             return Constants.IN_PROGRESS;
@@ -104,13 +265,113 @@ public class Board {
      */
     public List<Integer> findPossibleActions() {
         List<Integer> possibleColumns = new ArrayList<>();
-        for (Integer column = 0; column < NUM_COLS; column++) {
+        for (int actions = getPossibleActionsMask(); actions != 0; actions &= actions - 1) {
+            possibleColumns.add(Integer.numberOfTrailingZeros(actions));
+        }
+        return possibleColumns;
+    }
+
+    /**
+     * Returns all possible actions as a bitmask, where bit n is set if a disc can be placed in column n.
+     *
+     * @return a bitmask of all possible actions.
+     */
+    public int getPossibleActionsMask() {
+        int actions = 0;
+        for (int column = 0; column < NUM_COLS; column++) {
             // Check if the top position is empty
             if (isValidColumn(column)) {
-                possibleColumns.add(column);
+                actions |= 1 << column;
             }
         }
-        return possibleColumns;
+        return actions;
+    }
+
+    /**
+     * Returns the column of the single move that leads from this board to the given board.
+     *
+     * @param nextBoard the board after one more disc has been placed.
+     * @return the column of the move, or -1 if the boards do not differ by exactly one disc.
+     */
+    public int findMoveColumn(Board nextBoard) {
+        long move = nextBoard.occupied ^ occupied;
+        if (Long.bitCount(move) != 1) {
+            return -1;
+        }
+        return Long.numberOfTrailingZeros(move) / COLUMN_HEIGHT;
+    }
+
+    /**
+     * Returns the columns where the given player would complete a line of four with their next disc.
+     *
+     * @param player the player to find winning moves for.
+     * @return a bitmask of the winning columns, where bit n is set if placing a disc in column n wins.
+     */
+    public int getWinningActionsMask(int player) {
+        long discs = player == Constants.USER_MOVE ? userDiscs : occupied ^ userDiscs;
+        // The next empty position of each column that is not full.
+        long playable = (occupied + BOTTOM_MASK) & BOARD_MASK;
+        return toActions(findWinningPositions(discs) & playable);
+    }
+
+    /**
+     * Returns the columns where the given player can place a disc without letting the opponent win with
+     * their next disc. If the opponent can already win, only a column that blocks the win is returned, and
+     * no column is returned if the opponent has more than one winning move.
+     *
+     * @param player the player to move.
+     * @return a bitmask of the columns that do not lose at once, where bit n is set for column n.
+     */
+    public int getNonLosingActionsMask(int player) {
+        long opponentDiscs = player == Constants.USER_MOVE ? occupied ^ userDiscs : userDiscs;
+        long playable = (occupied + BOTTOM_MASK) & BOARD_MASK;
+        long opponentWins = findWinningPositions(opponentDiscs);
+        long forced = playable & opponentWins;
+        if (forced != 0) {
+            if ((forced & (forced - 1)) != 0) {
+                return 0;
+            }
+            playable = forced;
+        }
+        // A disc directly below one of the opponent's winning positions lets the opponent play there.
+        return toActions(playable & ~(opponentWins >>> 1));
+    }
+
+    /**
+     * Returns the columns of a set of board positions.
+     *
+     * @param positions the bitboard of the positions, with at most one position in each column.
+     * @return a bitmask of the columns, where bit n is set if a position is in column n.
+     */
+    private static int toActions(long positions) {
+        int actions = 0;
+        for (; positions != 0; positions &= positions - 1) {
+            actions |= 1 << (Long.numberOfTrailingZeros(positions) / COLUMN_HEIGHT);
+        }
+        return actions;
+    }
+
+    /**
+     * Returns the number of columns a disc can be placed in.
+     *
+     * @return the number of possible actions.
+     */
+    public int countPossibleActions() {
+        return Integer.bitCount(getPossibleActionsMask());
+    }
+
+    /**
+     * Returns the column of the nth possible action in a bitmask of possible actions.
+     *
+     * @param actions a bitmask of possible actions.
+     * @param n       the index of the action to find, counting from the lowest column starting at 0.
+     * @return the column of the nth set bit in the bitmask.
+     */
+    public static int getNthAction(int actions, int n) {
+        for (int i = 0; i < n; i++) {
+            actions &= actions - 1;
+        }
+        return Integer.numberOfTrailingZeros(actions);
     }
 
     /**
@@ -120,7 +381,7 @@ public class Board {
      * @return true if a disc can be placed into the column, false if the column is full
      */
     private boolean isValidColumn(int column) {
-        return boardValues[column][0] == null;
+        return (occupied & cellMask(column, 0)) == 0;
     }
 
     /**
@@ -130,66 +391,153 @@ public class Board {
      * @return an int, the next empty row position
      */
     public int getNextEmptyRow(int column) {
-        // Find the lowest row to place the disc
-        int row = NUM_ROWS - 1;
-        do {
-            if ((boardValues[column][row] == null)) {
-                break;
-            }
-            row--;
-        } while (row >= 0);
-        return row;
+        // The discs in a column are stacked from the bottom, so the height is the number of set bits.
+        int height = Long.bitCount(occupied & columnMask(column));
+        return NUM_ROWS - 1 - height;
     }
 
     /**
-     * Gets a disc from a particular column and row position in the discBoard.
+     * Gets the player who placed a disc at a particular column and row position in the board.
      *
-     * @param column an int, the column number to obtain the disc
-     * @param row    an int, the row number to obtain the disc
-     * @return the disc stored at the current position or empty
+     * @param column an int, the column number to check
+     * @param row    an int, the row number to check
+     * @return the user move or computer move constant, or the empty cell constant if no disc is stored there
      */
-    public Disc getDisc(int column, int row) {
+    public int getCell(int column, int row) {
         if (column < 0 || column >= NUM_COLS || row < 0 || row >= NUM_ROWS) {
-            return null;
+            return Constants.EMPTY_CELL;
         }
-        return boardValues[column][row];
+        long cell = cellMask(column, row);
+        if ((occupied & cell) == 0) {
+            return Constants.EMPTY_CELL;
+        }
+        return (userDiscs & cell) != 0 ? Constants.USER_MOVE : Constants.COMP_MOVE;
     }
 
     /**
-     * Checks for 4 tokens from the same player in a row.
+     * Checks for 4 tokens in a row in the given bitboard.
      *
-     * @param lines the lines to check to see if a line is filled with the same player's tokens.
-     * @return the user win constant for a user win, the computer win constant for a computer win
-     * else the in progress constant.
+     * @param discs the bitboard containing a single player's discs.
+     * @return true if the discs contain a horizontal, vertical, or diagonal line of four, otherwise false.
      */
-    private double checkForWinInLine(List<List<Point2D>> lines) {
-        int chain;
-        boolean userMove;
+    private static boolean hasFourInARow(long discs) {
+        // Vertical, horizontal, downward diagonal, and upward diagonal directions.
+        return hasFourInDirection(discs, 1)
+                || hasFourInDirection(discs, COLUMN_HEIGHT)
+                || hasFourInDirection(discs, COLUMN_HEIGHT - 1)
+                || hasFourInDirection(discs, COLUMN_HEIGHT + 1);
+    }
 
-        // Check for game winners
-        for (List<Point2D> line : lines) {
-            userMove = false;
-            chain = 0;
-            for (Point2D point : line) {
-                int col = (int) point.getX();
-                int row = (int) point.getY();
-                Disc disc = boardValues[col][row];
-                if (disc != null && disc.getMove() == userMove) {
-                    chain++;
-                    if (chain == 4) {
-                        return userMove ? Constants.USER_WIN : Constants.COMP_WIN;
-                    }
-                } else {
-                    if (disc != null) {
-                        userMove = disc.getMove();
-                        chain = 1;
-                    } else {
-                        chain = 0;
-                    }
-                }
+    /**
+     * Finds the positions that would complete a line of four for the given discs, whether or not they are empty.
+     *
+     * @param discs the bitboard containing a single player's discs.
+     * @return the bitboard of the positions that complete a line of four.
+     */
+    private static long findWinningPositions(long discs) {
+        // Vertical lines can only be completed from above.
+        long positions = (discs << 1) & (discs << 2) & (discs << 3);
+        positions |= findWinningPositionsInDirection(discs, COLUMN_HEIGHT);
+        positions |= findWinningPositionsInDirection(discs, COLUMN_HEIGHT - 1);
+        positions |= findWinningPositionsInDirection(discs, COLUMN_HEIGHT + 1);
+        return positions & BOARD_MASK;
+    }
+
+    /**
+     * Finds the positions that would complete a line of four for the given discs along the direction represented
+     * by the given shift, where the missing disc may be at either end or in the middle of the line.
+     *
+     * @param discs the bitboard containing a single player's discs.
+     * @param shift the distance between two neighbouring bits in the direction.
+     * @return the bitboard of the positions that complete a line of four in the direction.
+     */
+    private static long findWinningPositionsInDirection(long discs, int shift) {
+        long pairs = (discs << shift) & (discs << (2 * shift));
+        long positions = pairs & (discs << (3 * shift));
+        positions |= pairs & (discs >>> shift);
+        pairs = (discs >>> shift) & (discs >>> (2 * shift));
+        positions |= pairs & (discs << shift);
+        positions |= pairs & (discs >>> (3 * shift));
+        return positions;
+    }
+
+    /**
+     * Checks for 4 tokens in a row along the direction represented by the given shift.
+     *
+     * @param discs the bitboard containing a single player's discs.
+     * @param shift the distance between two neighbouring bits in the direction.
+     * @return true if the discs contain a line of four in the direction, otherwise false.
+     */
+    private static boolean hasFourInDirection(long discs, int shift) {
+        long pairs = discs & (discs >>> shift);
+        return (pairs & (pairs >>> (2 * shift))) != 0;
+    }
+
+    /**
+     * Checks for 4 tokens in a row that pass through the given position.
+     *
+     * @param discs the bitboard containing a single player's discs.
+     * @param move  the bitboard containing only the position to check through.
+     * @return true if a horizontal, vertical, or diagonal line of four passes through the position.
+     */
+    private static boolean hasFourThrough(long discs, long move) {
+        int position = Long.numberOfTrailingZeros(move);
+        int last = BoardLines.getFirstLineThrough(position + 1);
+        for (int entry = BoardLines.getFirstLineThrough(position); entry < last; entry++) {
+            long line = BoardLines.getLineMaskThrough(entry);
+            if ((discs & line) == line) {
+                return true;
             }
         }
-        return Constants.IN_PROGRESS;
+        return false;
+    }
+
+    /**
+     * Returns the index of the bit representing a single position on the board.
+     *
+     * @param column the column of the position.
+     * @param row    the row of the position, where row 0 is the top of the board.
+     * @return the bit index of the given position.
+     */
+    private static int cellIndex(int column, int row) {
+        return column * COLUMN_HEIGHT + NUM_ROWS - 1 - row;
+    }
+
+    /**
+     * Returns the bit representing a single position on the board.
+     *
+     * @param column the column of the position.
+     * @param row    the row of the position, where row 0 is the top of the board.
+     * @return a bitboard with only the given position set.
+     */
+    private static long cellMask(int column, int row) {
+        return 1L << cellIndex(column, row);
+    }
+
+    /**
+     * Returns the bits representing every playable position in a column.
+     *
+     * @param column the column to create the mask for.
+     * @return a bitboard with every row in the given column set.
+     */
+    private static long columnMask(int column) {
+        return ((1L << NUM_ROWS) - 1) << (column * COLUMN_HEIGHT);
+    }
+
+    /**
+     * Reverses the order of the columns in a bitboard.
+     *
+     * @param bits the bitboard to reflect.
+     * @return the bitboard reflected left to right.
+     */
+    private static long mirrorBits(long bits) {
+        long mirrored = 0L;
+        long column = (1L << COLUMN_HEIGHT) - 1;
+        for (int col = 0; col < NUM_COLS; col++) {
+            long columnBits = (bits >>> (col * COLUMN_HEIGHT)) & column;
+            mirrored |= columnBits << ((NUM_COLS - 1 - col) * COLUMN_HEIGHT);
+        }
+        return mirrored;
     }
 
     /**
@@ -199,23 +547,24 @@ public class Board {
      */
     @Override
     public String toString() {
-        String string = "";
+        StringBuilder string = new StringBuilder();
         for (int row = 0; row < Constants.NUM_ROWS; row++) {
-            string += "\nRow " + row + ": ";
+            string.append("\nRow ").append(row).append(": ");
             for (int col = 0; col < Constants.NUM_COLS; col++) {
-                if (getDisc(col, row) != null) {
-                    if (getDisc(col, row).getMove()) {
-                        string += "  " + 'U' + "  ";
+                long cell = cellMask(col, row);
+                if ((occupied & cell) != 0) {
+                    if ((userDiscs & cell) != 0) {
+                        string.append("  " + 'U' + "  ");
                     } else {
-                        string += "  " + 'C' + "  ";
+                        string.append("  " + 'C' + "  ");
                     }
                 } else {
-                    string += "  " + col + "  ";
+                    string.append("  ").append(col).append("  ");
                 }
             }
         }
-        string += "\n";
-        return string;
+        string.append("\n");
+        return string.toString();
     }
 
     /**
@@ -229,19 +578,16 @@ public class Board {
         if (this == o) return true;
         if (!(o instanceof Board)) return false;
         Board board = (Board) o;
-        for (int column = 0; column < boardValues.length; column++) {
-            for (int row = 0; row < boardValues[column].length; row++) {
-                if (board.boardValues[column][row] == null && boardValues[column][row] != null) {
-                    return false;
-                } else if (board.boardValues[column][row] != null && boardValues[column][row] == null) {
-                    return false;
-                } else if (board.boardValues[column][row] != null && boardValues[column][row] != null) {
-                    if (board.boardValues[column][row].getMove() != boardValues[column][row].getMove()) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+        return zobristKey == board.zobristKey && occupied == board.occupied && userDiscs == board.userDiscs;
+    }
+
+    /**
+     * Returns a hash code based on the Zobrist key of the board.
+     *
+     * @return the hash code of the board.
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(zobristKey);
     }
 }
@@ -1,161 +1,130 @@
 package model.environment;
 
-import application.Constants;
-import javafx.geometry.Point2D;
-
 import java.util.ArrayList;
 import java.util.List;
 
+import static application.Constants.NUM_COLS;
+import static application.Constants.NUM_ROWS;
+
 /**
  * This class initializes the possible lines of 4 points in a row where one of the
  * players could fill to win the game.
+ * <p>
+ * Each line is stored as a bitboard in the same layout as {@link Board}, and every board position
+ * has an index of the lines that pass through it. Both tables are built from the configured
+ * number of rows and columns.
  */
 public class BoardLines {
 
-    private static List<List<Point2D>> HorizontalLines = new ArrayList<>();
-    private static List<List<Point2D>> VerticalLines = new ArrayList<>();
-    private static List<List<Point2D>> UpwardDiagonalLines = new ArrayList<>();
-    private static List<List<Point2D>> DownwardDiagonalLines = new ArrayList<>();
+    private static final int LINE_LENGTH = 4;
+    private static final int POSITIONS = NUM_COLS * (NUM_ROWS + 1);
+
+    private static final long[] LINES;
+    private static final int[] POSITION_LINE_OFFSETS = new int[POSITIONS + 1];
+    private static final long[] POSITION_LINE_MASKS;
+
+    static {
+        List<Long> lines = new ArrayList<>();
+        // Horizontal, vertical, upward diagonal, and downward diagonal directions as column and height steps.
+        int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        for (int[] direction : directions) {
+            for (int column = 0; column < NUM_COLS; column++) {
+                for (int height = 0; height < NUM_ROWS; height++) {
+                    int endColumn = column + direction[0] * (LINE_LENGTH - 1);
+                    int endHeight = height + direction[1] * (LINE_LENGTH - 1);
+                    if (endColumn >= NUM_COLS || endHeight < 0 || endHeight >= NUM_ROWS) {
+                        continue;
+                    }
+                    long line = 0L;
+                    for (int i = 0; i < LINE_LENGTH; i++) {
+                        line |= 1L << position(column + direction[0] * i, height + direction[1] * i);
+                    }
+                    lines.add(line);
+                }
+            }
+        }
+        LINES = new long[lines.size()];
+        for (int i = 0; i < LINES.length; i++) {
+            LINES[i] = lines.get(i);
+        }
 
-    /**
-     * Constructor, initializes the possible horizontal, vertical, and diagonal lines that can be filled.
-     */
-    BoardLines() {
-        initializeHorizontalPoints();
-        initializeVerticalPoints();
-        initializeUpwardDiagonalPoints();
-        initializeDownwardDiagonalPoints();
+        // Build the index of lines through each position as a flat array of offsets and line bitboards.
+        int total = 0;
+        for (int position = 0; position < POSITIONS; position++) {
+            POSITION_LINE_OFFSETS[position] = total;
+            for (long line : LINES) {
+                if ((line & (1L << position)) != 0) {
+                    total++;
+                }
+            }
+        }
+        POSITION_LINE_OFFSETS[POSITIONS] = total;
+        POSITION_LINE_MASKS = new long[total];
+        for (int position = 0; position < POSITIONS; position++) {
+            int next = POSITION_LINE_OFFSETS[position];
+            for (long line : LINES) {
+                if ((line & (1L << position)) != 0) {
+                    POSITION_LINE_MASKS[next] = line;
+                    next++;
+                }
+            }
+        }
     }
 
     /**
-     * Returns the horizontal lines.
-     *
-     * @return a list of each list of four horizontal points in a row.
+     * Constructor, not used since all lines are stored in static tables.
      */
-    public List<List<Point2D>> getHorizontalLines() {
-        return HorizontalLines;
+    private BoardLines() {
     }
 
     /**
-     * Returns the vertical lines.
+     * Returns the number of lines of four on the board.
      *
-     * @return a list of each list of four vertical points in a row.
+     * @return the number of lines.
      */
-    public List<List<Point2D>> getVerticalLines() {
-        return VerticalLines;
+    public static int getLineCount() {
+        return LINES.length;
     }
 
     /**
-     * Returns the diagonal lines that are upward sloping.
+     * Returns a line of four as a bitboard.
      *
-     * @return a list of each list of upward sloping points in a row.
+     * @param line the index of the line.
+     * @return the bitboard with the four positions of the line set.
      */
-    public List<List<Point2D>> getUpwardDiagonalLines() {
-        return UpwardDiagonalLines;
+    public static long getLine(int line) {
+        return LINES[line];
     }
 
     /**
-     * Returns the diagonal lines that are downward sloping.
+     * Returns the index of the first entry for a position in the tables of lines through each position.
+     * The entries for the position end at the first entry of the next position.
      *
-     * @return a list of each list of downward sloping points in a row.
-     */
-    public List<List<Point2D>> getDownwardDiagonalLines() {
-        return DownwardDiagonalLines;
-    }
-
-    /**
-     * Creates a list of all possible lists of four points in a horizontal row.
-     */
-    private static void initializeHorizontalPoints() {
-        for (int row = 0; row < Constants.NUM_ROWS; row++) {
-            HorizontalLines.add(new ArrayList<>());
-        }
-
-        for (int row = 0; row < Constants.NUM_ROWS; row++) {
-            for (int col = 0; col < Constants.NUM_COLS; col++) {
-                HorizontalLines.get(row).add(new Point2D(col, row));
-            }
-        }
-    }
-
-    /**
-     * Creates a list of all possible lists of four points in a vertical row.
+     * @param position the bit index of the board position.
+     * @return the index of the first line through the position.
      */
-    private static void initializeVerticalPoints() {
-        for (int col = 0; col < Constants.NUM_COLS; col++) {
-            VerticalLines.add(new ArrayList<>());
-        }
-
-        for (int col = 0; col < Constants.NUM_COLS; col++) {
-            for (int row = 0; row < Constants.NUM_ROWS; row++) {
-                VerticalLines.get(col).add(new Point2D(col, row));
-            }
-        }
+    static int getFirstLineThrough(int position) {
+        return POSITION_LINE_OFFSETS[position];
     }
 
     /**
-     * Creates a list of all possible lists of four points in an upward sloping diagonal row.
-     */
-    private static void initializeUpwardDiagonalPoints() {
-        for (int x = 0; x < Constants.NUM_COLS + Constants.NUM_ROWS - 7; x++) {
-            UpwardDiagonalLines.add(new ArrayList<>());
-        }
-
-        UpwardDiagonalLines.add(createUpwardDiagonal(0, 2));
-        UpwardDiagonalLines.add(createUpwardDiagonal(0, 1));
-        UpwardDiagonalLines.add(createUpwardDiagonal(0, 0));
-        UpwardDiagonalLines.add(createUpwardDiagonal(1, 0));
-        UpwardDiagonalLines.add(createUpwardDiagonal(2, 0));
-        UpwardDiagonalLines.add(createUpwardDiagonal(3, 0));
-    }
-
-    /**
-     * Creates a list of all possible lists of four points in a downward sloping diagonal row.
-     */
-    private static void initializeDownwardDiagonalPoints() {
-        for (int x = 0; x < Constants.NUM_COLS + Constants.NUM_ROWS - 7; x++) {
-            DownwardDiagonalLines.add(new ArrayList<>());
-        }
-
-        DownwardDiagonalLines.add(createDownwardDiagonal(0, 3));
-        DownwardDiagonalLines.add(createDownwardDiagonal(0, 4));
-        DownwardDiagonalLines.add(createDownwardDiagonal(0, 5));
-        DownwardDiagonalLines.add(createDownwardDiagonal(1, 5));
-        DownwardDiagonalLines.add(createDownwardDiagonal(2, 5));
-        DownwardDiagonalLines.add(createDownwardDiagonal(3, 5));
-    }
-
-    /**
-     * Creates an upward sloping diagonal line of four points starting at the given location.
+     * Returns the bitboard stored at an entry of the table of lines through each position.
      *
-     * @param col the column value to start the diagonal line.
-     * @param row the row value to start the diagonal line.
-     * @return a list of four points in an upward diagonal line.
+     * @param entry the index of the entry, from {@link #getFirstLineThrough(int)}.
+     * @return the bitboard of the line.
      */
-    private static List<Point2D> createUpwardDiagonal(int col, int row) {
-        List<Point2D> diagonal = new ArrayList<>();
-        int r = row;
-        for (int c = col; c < Constants.NUM_COLS && r < Constants.NUM_ROWS; c++) {
-            diagonal.add(new Point2D(c, r));
-            r++;
-        }
-        return diagonal;
+    static long getLineMaskThrough(int entry) {
+        return POSITION_LINE_MASKS[entry];
     }
 
     /**
-     * Creates a downward sloping diagonal line of four points starting at the given location.
+     * Returns the bit index of a position given as a column and a height from the bottom of the board.
      *
-     * @param col the column value to start the diagonal line.
-     * @param row the row value to start the diagonal line.
-     * @return a list of four points in a downward diagonal line.
+     * @param column the column of the position.
+     * @param height the height of the position, where 0 is the bottom row.
+     * @return the bit index used by {@link Board}.
      */
-    private static List<Point2D> createDownwardDiagonal(int col, int row) {
-        List<Point2D> diagonal = new ArrayList<>();
-        int r = row;
-        for (int c = col; c < Constants.NUM_COLS && r >= 0; c++) {
-            diagonal.add(new Point2D(c, r));
-            r--;
-        }
-        return diagonal;
+    private static int position(int column, int height) {
+        return column * (NUM_ROWS + 1) + height;
     }
 }
@@ -0,0 +1,93 @@
+package model.environment;
+
+/**
+ * This class is a fast xorshift random number generator used for random playouts and picking successors.
+ * <p>
+ * Each thread has its own generator, returned by {@link #current()}, so threads never share state. The
+ * generators are seeded from a sequence of seeds, which is started from the time by default. Calling
+ * {@link #setSeed(long)} restarts the sequence from a fixed seed and makes every thread take a new seed on
+ * its next call to {@link #current()}, so a single-threaded search can be repeated exactly.
+ */
+public final class FastRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final ThreadLocal<FastRandom> CURRENT = ThreadLocal.withInitial(FastRandom::new);
+
+    private static long nextSeed = System.nanoTime();
+    private static volatile int seedGeneration = 0;
+
+    private long state;
+    private int generation;
+
+    /**
+     * Constructor, seeds the generator from the next seed in the sequence.
+     */
+    private FastRandom() {
+        reseed();
+    }
+
+    /**
+     * Returns the generator of the calling thread.
+     *
+     * @return the generator of the calling thread.
+     */
+    public static FastRandom current() {
+        FastRandom random = CURRENT.get();
+        if (random.generation != seedGeneration) {
+            random.reseed();
+        }
+        return random;
+    }
+
+    /**
+     * Restarts the sequence of seeds from the given seed. Every thread's generator takes the next seed
+     * from the new sequence on its next call to {@link #current()}.
+     *
+     * @param seed the seed to start the sequence from.
+     */
+    public static synchronized void setSeed(long seed) {
+        nextSeed = seed;
+        seedGeneration++;
+    }
+
+    /**
+     * Returns a random integer between 0 (inclusive) and the bound (exclusive).
+     *
+     * @param bound the upper bound, which must be positive.
+     * @return the random integer.
+     */
+    public int nextInt(int bound) {
+        // Scale the upper 32 bits to the bound with a multiply instead of a division.
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * Returns a random long, using the xorshift64* generator.
+     *
+     * @return the random long.
+     */
+    public long nextLong() {
+        long x = state;
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        state = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+
+    /**
+     * Seeds the generator from the next seed in the sequence.
+     */
+    private void reseed() {
+        long seed;
+        synchronized (FastRandom.class) {
+            generation = seedGeneration;
+            nextSeed += GOLDEN_GAMMA;
+            seed = nextSeed;
+        }
+        // Mix the seed so that consecutive seeds give unrelated generators. The state must not be 0.
+        seed = (seed ^ (seed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        seed = (seed ^ (seed >>> 27)) * 0x94D049BB133111EBL;
+        seed ^= seed >>> 31;
+        state = seed == 0 ? GOLDEN_GAMMA : seed;
+    }
+}
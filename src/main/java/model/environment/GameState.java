@@ -4,15 +4,19 @@ import application.Constants;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 /**
  * This class represents the current state of the game.
  * Containing a board and the player's turn.
+ * <p>
+ * Moves made with {@link #randomPlay()} and {@link #tacticalPlay()} are recorded on a move stack so they can be reversed
+ * with {@link #undoMove()}, which lets a single game state be played out and rewound repeatedly.
  */
 public class GameState {
     private Board board;
     private int playerNum;
+    private int[] moveStack;
+    private int stackSize;
 
     /**
      * Constructor that sets the game state's board to be the given board.
@@ -33,6 +37,17 @@ public class GameState {
         this.playerNum = gameState.getPlayerNum();
     }
 
+    /**
+     * Copies the given game state's board and player number into this game state and clears the move stack.
+     *
+     * @param gameState the game state to copy.
+     */
+    public void copyFrom(GameState gameState) {
+        this.board.copyFrom(gameState.getBoard());
+        this.playerNum = gameState.getPlayerNum();
+        this.stackSize = 0;
+    }
+
     /**
      * Returns the board.
      *
@@ -42,12 +57,21 @@ public class GameState {
         return board;
     }
 
+    /**
+     * Returns the Zobrist key of the board.
+     *
+     * @return a 64-bit key identifying the positions of the discs on the board.
+     */
+    public long getKey() {
+        return board.getKey();
+    }
+
     /**
      * Returns the player number
      *
      * @return 0 for user move, 1 for computer move.
      */
-    private int getPlayerNum() {
+    public int getPlayerNum() {
         return playerNum;
     }
 
@@ -87,8 +111,8 @@ public class GameState {
      */
     public List<GameState> getAllPossibleNextStates() {
         List<GameState> successorStates = new ArrayList<>();
-        List<Integer> possibleColumns = board.findPossibleActions();
-        for (Integer column : possibleColumns) {
+        for (int actions = board.getPossibleActionsMask(); actions != 0; actions &= actions - 1) {
+            int column = Integer.numberOfTrailingZeros(actions);
             int row = board.getNextEmptyRow(column);
             Board successorBoard = new Board(board);
             successorBoard.performMove(getOpponent(), column, row);
@@ -99,16 +123,88 @@ public class GameState {
 
     /**
      * Executes a random move on the board.
+     *
+     * @return the column the disc was placed in.
+     */
+    public int randomPlay() {
+        return play(board.getPossibleActionsMask());
+    }
+
+    /**
+     * Executes a move that wins immediately if there is one, otherwise a move that blocks an immediate win
+     * of the opponent, and otherwise a random move. When there is more than one such move a random one is chosen.
+     *
+     * @return the column the disc was placed in.
+     */
+    public int tacticalPlay() {
+        int actions = board.getWinningActionsMask(playerNum);
+        if (actions == 0) {
+            actions = board.getWinningActionsMask(getOpponent());
+        }
+        if (actions == 0) {
+            actions = board.getPossibleActionsMask();
+        }
+        return play(actions);
+    }
+
+    /**
+     * Places a disc for the current player in a random column of the given columns.
+     *
+     * @param actions a bitmask of the columns to choose from, which must not be empty.
+     * @return the column the disc was placed in.
+     */
+    private int play(int actions) {
+        int column = Board.getNthAction(actions, FastRandom.current().nextInt(Integer.bitCount(actions)));
+        // Add the disc to the next empty row of the column
+        board.performMove(playerNum, column, board.getNextEmptyRow(column));
+        pushMove(column);
+        return column;
+    }
+
+    /**
+     * Reverses the most recent move recorded on the move stack.
+     *
+     * @return the column the disc was removed from.
+     */
+    public int undoMove() {
+        int column = moveStack[--stackSize];
+        board.undoMove(column);
+        return column;
+    }
+
+    /**
+     * Records a move on the move stack, creating the stack the first time it is needed.
+     *
+     * @param column the column the disc was placed in.
+     */
+    private void pushMove(int column) {
+        if (moveStack == null) {
+            moveStack = new int[Constants.NUM_COLS * Constants.NUM_ROWS];
+        }
+        moveStack[stackSize++] = column;
+    }
+
+    /**
+     * Checks if two game states have equal boards and player numbers.
+     *
+     * @param o the game state to check.
+     * @return true if the game states are equal, otherwise false.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GameState)) return false;
+        GameState gameState = (GameState) o;
+        return playerNum == gameState.playerNum && board.equals(gameState.board);
+    }
+
+    /**
+     * Returns a hash code based on the board's Zobrist key and the player number.
+     *
+     * @return the hash code of the game state.
      */
-    public void randomPlay() {
-        List<Integer> possibleColumns = board.findPossibleActions();
-        Random random = new Random();
-        int columnIndex, column, row;
-        columnIndex = random.nextInt(possibleColumns.size());
-        column = possibleColumns.get(columnIndex);
-        // Get the row to place the next disc
-        row = board.getNextEmptyRow(column);
-        // Add the disc to the discBoard
-        board.performMove(playerNum, column, row);
+    @Override
+    public int hashCode() {
+        return 31 * board.hashCode() + playerNum;
     }
 }
@@ -0,0 +1,72 @@
+package model.environment;
+
+import application.Constants;
+
+/**
+ * This class estimates the result of a game that is still in progress from the threats on the board, so
+ * playouts can be stopped before the end of the game.
+ * <p>
+ * A player to move with a winning move wins, and so does an opponent with two winning moves that cannot both
+ * be blocked. Otherwise each line of four that only one player has discs in counts towards that player,
+ * with lines of three counting the most. A large enough difference between the players is scored as a win
+ * for the player ahead, and anything closer is scored as a draw.
+ */
+public final class PositionEvaluator {
+    private static final int CONFIDENT_BALANCE = 8;
+    // The weight of a line by the number of discs in it, where a complete line is always decisive.
+    private static final int[] LINE_WEIGHTS = {0, 0, 1, 4, CONFIDENT_BALANCE};
+
+    /**
+     * Constructor, not used since the evaluator has no state.
+     */
+    private PositionEvaluator() {
+    }
+
+    /**
+     * Estimates the result of the game on the given board.
+     *
+     * @param board        the board to evaluate.
+     * @param playerToMove the player who places the next disc.
+     * @return Constants.COMP_WIN or Constants.USER_WIN if the player is expected to win, otherwise
+     * Constants.DRAW_SCORE.
+     */
+    public static double evaluate(Board board, int playerToMove) {
+        int opponent = playerToMove == Constants.USER_MOVE ? Constants.COMP_MOVE : Constants.USER_MOVE;
+        if (board.getWinningActionsMask(playerToMove) != 0) {
+            return getWinScore(playerToMove);
+        }
+        if (Integer.bitCount(board.getWinningActionsMask(opponent)) > 1) {
+            return getWinScore(opponent);
+        }
+
+        long userDiscs = board.getUserDiscs();
+        long compDiscs = board.getCompDiscs();
+        int balance = 0;
+        for (int i = 0; i < BoardLines.getLineCount(); i++) {
+            long line = BoardLines.getLine(i);
+            int userCount = Long.bitCount(line & userDiscs);
+            int compCount = Long.bitCount(line & compDiscs);
+            if (userCount == 0) {
+                balance += LINE_WEIGHTS[compCount];
+            } else if (compCount == 0) {
+                balance -= LINE_WEIGHTS[userCount];
+            }
+        }
+        if (balance >= CONFIDENT_BALANCE) {
+            return Constants.COMP_WIN;
+        } else if (balance <= -CONFIDENT_BALANCE) {
+            return Constants.USER_WIN;
+        }
+        return Constants.DRAW_SCORE;
+    }
+
+    /**
+     * Returns the result of a win for the given player.
+     *
+     * @param player the winning player.
+     * @return Constants.USER_WIN for the user, otherwise Constants.COMP_WIN.
+     */
+    private static double getWinScore(int player) {
+        return player == Constants.USER_MOVE ? Constants.USER_WIN : Constants.COMP_WIN;
+    }
+}
@@ -0,0 +1,217 @@
+package model.montecarlotreesearch;
+
+import model.environment.Board;
+import model.environment.GameState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class stores an MCTS tree as parallel arrays of primitives, where each node is an index into the arrays.
+ * The root is node 0 and the successors of a node are stored next to each other, so a node only needs the
+ * column of the move into it, the index of its first successor, and its number of successors. Nodes do not
+ * store a game state; the position of a node is found by replaying the moves from the root.
+ */
+public class CompactTree {
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    private byte[] columns;
+    private int[] firstSuccessors;
+    private byte[] successorCounts;
+    private int[] visitCounts;
+    private int[] compWins;
+    private int[] userWins;
+    private int size;
+
+    /**
+     * Constructor, creates a tree containing only the root.
+     */
+    public CompactTree() {
+        columns = new byte[INITIAL_CAPACITY];
+        firstSuccessors = new int[INITIAL_CAPACITY];
+        successorCounts = new byte[INITIAL_CAPACITY];
+        visitCounts = new int[INITIAL_CAPACITY];
+        compWins = new int[INITIAL_CAPACITY];
+        userWins = new int[INITIAL_CAPACITY];
+        columns[0] = -1;
+        size = 1;
+    }
+
+    /**
+     * Returns the number of nodes in the tree.
+     *
+     * @return the number of nodes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the column of the move into the node.
+     *
+     * @param node the index of the node.
+     * @return the column, or -1 for the root.
+     */
+    public int getColumn(int node) {
+        return columns[node];
+    }
+
+    /**
+     * Returns the index of the node's first successor. The node's other successors follow it.
+     *
+     * @param node the index of the node.
+     * @return the index of the first successor.
+     */
+    public int getFirstSuccessor(int node) {
+        return firstSuccessors[node];
+    }
+
+    /**
+     * Returns the number of successors of the node.
+     *
+     * @param node the index of the node.
+     * @return the number of successors, or 0 if the node has not been expanded.
+     */
+    public int getSuccessorCount(int node) {
+        return successorCounts[node];
+    }
+
+    /**
+     * Returns the visit count of the node.
+     *
+     * @param node the index of the node.
+     * @return the visit count.
+     */
+    public int getVisitCount(int node) {
+        return visitCounts[node];
+    }
+
+    /**
+     * Returns the number of computer wins simulated through the node.
+     *
+     * @param node the index of the node.
+     * @return the number of computer wins.
+     */
+    public int getCompWins(int node) {
+        return compWins[node];
+    }
+
+    /**
+     * Returns the number of user wins simulated through the node.
+     *
+     * @param node the index of the node.
+     * @return the number of user wins.
+     */
+    public int getUserWins(int node) {
+        return userWins[node];
+    }
+
+    /**
+     * Returns the number of draws simulated through the node.
+     *
+     * @param node the index of the node.
+     * @return the number of draws.
+     */
+    public int getDraws(int node) {
+        return visitCounts[node] - compWins[node] - userWins[node];
+    }
+
+    /**
+     * Adds a successor to the node for each column in the given actions.
+     *
+     * @param node    the index of the node to expand.
+     * @param actions the bitmask of the columns to add successors for.
+     */
+    public void expand(int node, int actions) {
+        int count = Integer.bitCount(actions);
+        ensureCapacity(size + count);
+        firstSuccessors[node] = size;
+        for (; actions != 0; actions &= actions - 1) {
+            columns[size++] = (byte) Integer.numberOfTrailingZeros(actions);
+        }
+        successorCounts[node] = (byte) count;
+    }
+
+    /**
+     * Returns the successor of the node with the max UCT value.
+     *
+     * @param node the index of the node to select a successor of.
+     * @return the index of the successor that maximizes the UCT value.
+     */
+    public int findBestSuccessorWithUCT(int node) {
+        double explorationFactor = UCT.getExplorationFactor(visitCounts[node]);
+        int first = firstSuccessors[node];
+        int end = first + successorCounts[node];
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int successor = first; successor < end; successor++) {
+            double value = UCT.uctValue(explorationFactor, visitCounts[successor],
+                    compWins[successor], userWins[successor], getDraws(successor));
+            if (value > bestValue) {
+                bestValue = value;
+                best = successor;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Adds the results of several simulations to the node.
+     *
+     * @param node         the index of the node.
+     * @param compWinCount the number of simulations that ended in a computer win.
+     * @param userWinCount the number of simulations that ended in a user win.
+     * @param drawCount    the number of simulations that ended in a draw.
+     */
+    public void addResults(int node, int compWinCount, int userWinCount, int drawCount) {
+        visitCounts[node] += compWinCount + userWinCount + drawCount;
+        compWins[node] += compWinCount;
+        userWins[node] += userWinCount;
+    }
+
+    /**
+     * Creates an MCTS tree node for the root and its successors, holding their statistics, so the results of
+     * the search can be read and merged like those of any other tree.
+     *
+     * @param rootState the game state of the root.
+     * @return the MCTS tree node of the root.
+     */
+    public MCTSTreeNode toTreeNode(GameState rootState) {
+        MCTSTreeNode root = new MCTSTreeNode(rootState);
+        root.addResults(compWins[0], userWins[0], getDraws(0));
+        int player = rootState.getOpponent();
+        int first = firstSuccessors[0];
+        List<MCTSTreeNode> successors = new ArrayList<>(successorCounts[0]);
+        for (int node = first; node < first + successorCounts[0]; node++) {
+            GameState state = new GameState(rootState);
+            state.setPlayerNum(player);
+            Board board = state.getBoard();
+            board.performMove(player, columns[node], board.getNextEmptyRow(columns[node]));
+            MCTSTreeNode successor = new MCTSTreeNode(state);
+            successor.setParentNode(root);
+            successor.addResults(compWins[node], userWins[node], getDraws(node));
+            successors.add(successor);
+        }
+        root.setSuccessorStates(successors);
+        return root;
+    }
+
+    /**
+     * Grows the arrays so they can hold at least the given number of nodes.
+     *
+     * @param capacity the number of nodes to hold.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= columns.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, columns.length * 2);
+        columns = Arrays.copyOf(columns, newCapacity);
+        firstSuccessors = Arrays.copyOf(firstSuccessors, newCapacity);
+        successorCounts = Arrays.copyOf(successorCounts, newCapacity);
+        visitCounts = Arrays.copyOf(visitCounts, newCapacity);
+        compWins = Arrays.copyOf(compWins, newCapacity);
+        userWins = Arrays.copyOf(userWins, newCapacity);
+    }
+}
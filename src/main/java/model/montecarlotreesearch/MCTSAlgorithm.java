@@ -1,17 +1,58 @@
 package model.montecarlotreesearch;
 
+import model.book.OpeningBook;
 import model.environment.Board;
 import application.Constants;
+import model.environment.FastRandom;
+import model.environment.PositionEvaluator;
 import model.environment.GameState;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class implements the selection, expansion, simulation, and backpropagation steps
  * of the Monte Carlo Tree Search Algorithm
  */
 public class MCTSAlgorithm {
+    private static final int COMP_WIN_RESULT = 0;
+    private static final int USER_WIN_RESULT = 1;
+    private static final int DRAW_RESULT = 2;
+
+    private static final ThreadLocal<GameState> workerScratchState =
+            ThreadLocal.withInitial(() -> new GameState(new Board()));
+
     private static int iterations = Constants.ITERATIONS;
+    private static volatile int lastIterationCount = 0;
+    private static int lastReusedVisitCount = 0;
+    private static boolean useSymmetry = false;
+    private static boolean useTranspositions = false;
+    private static boolean useCompactTree = false;
+    private static boolean useLazyExpansion = false;
+    private static boolean useRave = false;
+    private static boolean useSolver = false;
+    private static int maxNodes = Constants.MAX_NODES;
+    private static int threadCount = Constants.THREADS;
+    private static ParallelMode parallelMode = ParallelMode.ROOT;
+    private static PlayoutPolicy playoutPolicy = PlayoutPolicy.RANDOM;
+    private static int playoutCutoff = 0;
+    private static OpeningBook openingBook;
+    private static ExecutorService workerPool;
 
     /**
      * Sets the number of iterations to perform the MCTS algorithm
@@ -31,6 +72,288 @@ public class MCTSAlgorithm {
         return iterations;
     }
 
+    /**
+     * Returns the number of iterations conducted by the most recent search, summed over all threads.
+     *
+     * @return the number of iterations conducted.
+     */
+    public static int getLastIterationCount() {
+        return lastIterationCount;
+    }
+
+    /**
+     * Returns the number of visits kept by the most recent call to {@link #advanceRoot(MCTSTreeNode, Board)}.
+     *
+     * @return the visit count of the new root when it was promoted.
+     */
+    public static int getLastReusedVisitCount() {
+        return lastReusedVisitCount;
+    }
+
+    /**
+     * Sets whether left-right mirror images of positions share statistics. When enabled, a symmetric position
+     * is only expanded with the columns up to the middle column, since the remaining columns lead to the
+     * mirror images of those successors. Only the successors of symmetric positions are deduplicated this way:
+     * mirror images reached from an asymmetric position are still separate nodes, even with transpositions.
+     *
+     * @param symmetry true to share statistics between mirrored positions.
+     */
+    public static void setUseSymmetry(boolean symmetry) {
+        useSymmetry = symmetry;
+    }
+
+    /**
+     * Returns whether left-right mirror images of positions share statistics.
+     *
+     * @return true if mirrored positions share statistics.
+     */
+    public static boolean getUseSymmetry() {
+        return useSymmetry;
+    }
+
+    /**
+     * Sets whether positions reached through different orders of moves share a single node. The shared nodes
+     * are kept in a transposition table that belongs to the root of the search, so the tree becomes a directed
+     * acyclic graph and results are backpropagated along the path each iteration selected.
+     *
+     * @param transpositions true to share nodes between transposed positions.
+     */
+    public static void setUseTranspositions(boolean transpositions) {
+        useTranspositions = transpositions;
+    }
+
+    /**
+     * Returns whether positions reached through different orders of moves share a single node.
+     *
+     * @return true if transposed positions share a node.
+     */
+    public static boolean getUseTranspositions() {
+        return useTranspositions;
+    }
+
+    /**
+     * Sets whether each search grows a compact tree of primitive arrays instead of a tree of MCTS tree nodes.
+     * The statistics of the compact tree's root and its successors are added to the given root once the
+     * search is done, so the deeper nodes are not kept for the next move. The compact tree is used when
+     * searching on one thread and by each thread of the root and leaf parallel modes.
+     *
+     * @param compactTree true to search with a compact tree.
+     */
+    public static void setUseCompactTree(boolean compactTree) {
+        useCompactTree = compactTree;
+    }
+
+    /**
+     * Returns whether each search grows a compact tree of primitive arrays.
+     *
+     * @return true if searches use a compact tree.
+     */
+    public static boolean getUseCompactTree() {
+        return useCompactTree;
+    }
+
+    /**
+     * Sets whether nodes are expanded one successor at a time. Each visit to a node with untried moves adds
+     * the successor for one random untried move and simulates from it, so nodes are only created for moves
+     * the search actually tries. A node is only selected through once all of its moves have been tried.
+     * The root is always fully expanded before the search, and compact trees are always fully expanded.
+     *
+     * @param lazyExpansion true to add one successor per visit.
+     */
+    public static void setUseLazyExpansion(boolean lazyExpansion) {
+        useLazyExpansion = lazyExpansion;
+    }
+
+    /**
+     * Returns whether nodes are expanded one successor at a time.
+     *
+     * @return true if one successor is added per visit.
+     */
+    public static boolean getUseLazyExpansion() {
+        return useLazyExpansion;
+    }
+
+    /**
+     * Sets whether the search uses Rapid Action Value Estimation. Each node then also keeps all-moves-as-first
+     * statistics for each column, counting every simulation in which the player moving from the node played
+     * in the column at any later point, and selection blends them into the UCT value with a weight that
+     * decays as the successor is visited. The playouts of a search with RAVE run on the thread that selected
+     * the node, so the leaf parallel mode does not split them, and compact trees do not keep RAVE statistics.
+     *
+     * @param rave true to use RAVE.
+     */
+    public static void setUseRave(boolean rave) {
+        useRave = rave;
+    }
+
+    /**
+     * Returns whether the search uses Rapid Action Value Estimation.
+     *
+     * @return true if RAVE is used.
+     */
+    public static boolean getUseRave() {
+        return useRave;
+    }
+
+    /**
+     * Sets whether the search proves the results of nodes. A node whose game is over is proven, and results
+     * are propagated up the selected path by minimax rules: a node is a proven win for the player moving from
+     * it if any successor is, and otherwise proven once every successor is proven. Proven nodes are scored
+     * without playouts, successors proven to lose are not selected, and the search stops as soon as the
+     * result of the root is proven. Compact trees do not prove results.
+     *
+     * @param solver true to prove the results of nodes.
+     */
+    public static void setUseSolver(boolean solver) {
+        useSolver = solver;
+    }
+
+    /**
+     * Returns whether the search proves the results of nodes.
+     *
+     * @return true if results are proven.
+     */
+    public static boolean getUseSolver() {
+        return useSolver;
+    }
+
+    /**
+     * Sets the opening book consulted before each search. When the root's position is in the book, its move
+     * is returned straight away without searching.
+     *
+     * @param book the opening book, or null to always search.
+     */
+    public static void setOpeningBook(OpeningBook book) {
+        openingBook = book;
+    }
+
+    /**
+     * Returns the opening book consulted before each search.
+     *
+     * @return the opening book, or null if there is none.
+     */
+    public static OpeningBook getOpeningBook() {
+        return openingBook;
+    }
+
+    /**
+     * Sets the maximum number of nodes kept in the search tree. When an expansion takes the tree over the
+     * budget, the subtrees with the fewest visits and furthest from the root are collapsed into their top
+     * node, which keeps its statistics and can be expanded again. In the root parallel mode the budget is
+     * split between the threads' trees. Trees shared by the tree parallel mode are pruned before the search
+     * and then stop growing once the budget is reached, and compact trees stop growing once they hold the budget.
+     *
+     * @param nodes the maximum number of nodes, or 0 for no limit.
+     */
+    public static void setMaxNodes(int nodes) {
+        if (nodes < 0) {
+            throw new IllegalArgumentException("The maximum number of nodes cannot be negative.");
+        }
+        maxNodes = nodes;
+    }
+
+    /**
+     * Returns the maximum number of nodes kept in the search tree.
+     *
+     * @return the maximum number of nodes, or 0 for no limit.
+     */
+    public static int getMaxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     * Sets the number of threads used to search. With more than one thread, the threads are used as
+     * described by the parallel mode.
+     *
+     * @param threads the number of threads, at least 1.
+     */
+    public static void setThreadCount(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The thread count must be at least 1.");
+        }
+        threadCount = threads;
+    }
+
+    /**
+     * Returns the number of simulations run from each node explored by an iteration. In leaf parallel mode
+     * every thread runs a batch of simulations from the node, unless the RAVE playouts are used.
+     *
+     * @return the number of simulations per iteration.
+     */
+    public static int getSimulationsPerIteration() {
+        if (threadCount > 1 && parallelMode == ParallelMode.LEAF && (!useRave || useCompactTree)) {
+            return threadCount * Constants.LEAF_SIMULATIONS_PER_THREAD;
+        }
+        return Constants.SIMULATIONS;
+    }
+
+    /**
+     * Returns the number of threads used to search.
+     *
+     * @return the number of threads.
+     */
+    public static int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * Sets how the search uses more than one thread.
+     *
+     * @param mode the parallel mode.
+     */
+    public static void setParallelMode(ParallelMode mode) {
+        parallelMode = mode;
+    }
+
+    /**
+     * Returns how the search uses more than one thread.
+     *
+     * @return the parallel mode.
+     */
+    public static ParallelMode getParallelMode() {
+        return parallelMode;
+    }
+
+    /**
+     * Sets how moves are chosen during simulated playouts.
+     *
+     * @param policy the playout policy.
+     */
+    public static void setPlayoutPolicy(PlayoutPolicy policy) {
+        playoutPolicy = policy;
+    }
+
+    /**
+     * Returns how moves are chosen during simulated playouts.
+     *
+     * @return the playout policy.
+     */
+    public static PlayoutPolicy getPlayoutPolicy() {
+        return playoutPolicy;
+    }
+
+    /**
+     * Sets the number of moves after which a playout is stopped and its result estimated from the threats on
+     * the board, as a computer win, a user win, or a draw.
+     *
+     * @param plies the number of moves to play before estimating the result, or 0 to play every game to the end.
+     */
+    public static void setPlayoutCutoff(int plies) {
+        if (plies < 0) {
+            throw new IllegalArgumentException("The playout cutoff cannot be negative.");
+        }
+        playoutCutoff = plies;
+    }
+
+    /**
+     * Returns the number of moves after which a playout is stopped and its result estimated.
+     *
+     * @return the number of moves, or 0 if every game is played to the end.
+     */
+    public static int getPlayoutCutoff() {
+        return playoutCutoff;
+    }
+
     /**
      * Finds the next move for the computer. Starts the MCTS algorithm.
      *
@@ -38,31 +361,635 @@ public class MCTSAlgorithm {
      * @return the column number where the computer should place a disc.
      */
     public static int findNextMove(MCTSTreeNode root) {
+        return findNextMove(root, new SearchLimit(iterations, 0));
+    }
+
+    /**
+     * Finds the next move for the computer, searching until the time budget runs out rather than
+     * for a fixed number of iterations. The number of iterations conducted can be read afterwards
+     * from {@link #getLastIterationCount()}.
+     *
+     * @param root         the MCTS Tree Node that contains the current board.
+     * @param budgetMillis the time to search for, in milliseconds, which must be positive.
+     * @return the column number where the computer should place a disc.
+     */
+    public static int findNextMove(MCTSTreeNode root, long budgetMillis) {
+        if (budgetMillis <= 0) {
+            throw new IllegalArgumentException("The time budget must be positive.");
+        }
+        return findNextMove(root, new SearchLimit(Integer.MAX_VALUE, TimeUnit.MILLISECONDS.toNanos(budgetMillis)));
+    }
+
+    /**
+     * Finds the next move for the computer by searching until the given limit is reached.
+     *
+     * @param root  the MCTS Tree Node that contains the current board.
+     * @param limit the iteration and time limit of the search.
+     * @return the column number where the computer should place a disc.
+     */
+    private static int findNextMove(MCTSTreeNode root, SearchLimit limit) {
         root.getGameState().setPlayerNum(Constants.USER_MOVE);
+        if (openingBook != null) {
+            int column = openingBook.findColumn(root.getGameState().getBoard(), Constants.COMP_MOVE);
+            if (column >= 0) {
+                lastIterationCount = 0;
+                return column;
+            }
+        }
+        if (!useTranspositions) {
+            root.setTranspositionTable(null);
+        } else if (root.getTranspositionTable() == null) {
+            root.setTranspositionTable(new TranspositionTable());
+            root.getTranspositionTable().putIfAbsent(root);
+        }
+        if (root.isProven() && root.getSuccessorStates().isEmpty()) {
+            // The root was collapsed by pruning and lost the proven successors its result came from, so it
+            // is searched again to find them.
+            root.setProvenScore(Constants.IN_PROGRESS);
+        }
+        if (useLazyExpansion && root.getGameState().getBoard().checkStatus() == Constants.IN_PROGRESS) {
+            // Every move from the root is compared, so the root's successors are all added up front.
+            GameState scratchState = new GameState(root.getGameState());
+            MCTSTreeNode successor;
+            do {
+                successor = expandOneNode(root, scratchState, root.getTranspositionTable());
+            } while (successor != null);
+        }
 
-        for (int iteration = 0; iteration < iterations; iteration++) {
+        if (useSolver && root.isProven()) {
+            // The result of the game is already known, so the best move does not need to be searched for.
+            lastIterationCount = 0;
+        } else if (threadCount == 1) {
+            lastIterationCount = search(root, limit, false, false, createNodeBudget(root, maxNodes));
+        } else if (parallelMode == ParallelMode.TREE) {
+            lastIterationCount = searchTreeParallel(root, limit);
+        } else if (parallelMode == ParallelMode.LEAF) {
+            lastIterationCount = search(root, limit, false, true, createNodeBudget(root, maxNodes));
+        } else {
+            lastIterationCount = searchRootParallel(root, limit);
+        }
+
+        MCTSTreeNode winnerNode = useSolver ? getBestProvenSuccessor(root) : root.getSuccessorWithMaxScore();
+        return getColumnToMoveInto(root.getGameState().getBoard(), winnerNode.getGameState().getBoard());
+    }
+
+    /**
+     * Returns the successor of the root with the best score for the computer, using the proven result in
+     * place of the average state score of each proven successor.
+     *
+     * @param root the root of the search tree, from which the computer moves.
+     * @return the best successor.
+     */
+    private static MCTSTreeNode getBestProvenSuccessor(MCTSTreeNode root) {
+        MCTSTreeNode bestNode = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (MCTSTreeNode successor : root.getSuccessorStates()) {
+            double score;
+            if (successor.getProvenScore() == Constants.COMP_WIN) {
+                // A proven win is better than any average score.
+                return successor;
+            } else if (successor.isProven()) {
+                score = successor.getProvenScore();
+            } else {
+                score = successor.getAverageStateScore();
+            }
+            if (bestNode == null || Double.compare(score, bestScore) > 0) {
+                bestNode = successor;
+                bestScore = score;
+            }
+        }
+        return bestNode;
+    }
+
+    /**
+     * Runs the MCTS iterations on the calling thread, growing the tree below the given root.
+     *
+     * @param root         the MCTS Tree Node that contains the current board.
+     * @param limit        the iteration and time limit of the search.
+     * @param virtualLoss  true to add virtual losses along the selected path while other threads share the tree.
+     * @param leafParallel true to run a batch of simulations from each node on every thread.
+     * @param budget       the node budget of the tree, shared by the threads searching it.
+     * @return the number of iterations conducted.
+     */
+    private static int search(MCTSTreeNode root, SearchLimit limit, boolean virtualLoss, boolean leafParallel,
+                              NodeBudget budget) {
+        if (useCompactTree && !virtualLoss) {
+            CompactTree tree = new CompactTree();
+            int iterationCount = searchCompactTree(root.getGameState(), tree, limit, leafParallel, budget);
+            mergeRootStatistics(root, tree.toTreeNode(root.getGameState()));
+            return iterationCount;
+        }
+        // A single scratch state is reused for every expansion and playout.
+        GameState scratchState = new GameState(root.getGameState());
+        TranspositionTable table = root.getTranspositionTable();
+        int[] results = new int[3];
+        int[] playedColumns = new int[2];
+        // The nodes from the root to the explored node, which can have more than one parent when nodes are shared.
+        MCTSTreeNode[] path = new MCTSTreeNode[Constants.NUM_ROWS * Constants.NUM_COLS + 2];
+
+        int iteration;
+        for (iteration = 0; !limit.isReached(iteration) && !(useSolver && root.isProven()); iteration++) {
             // Selection step - select the most promising node.
-            MCTSTreeNode promisingNode = selectPromisingNode(root);
-            // Expansion step - expand node if the game is not over
-            if (promisingNode.getGameState().getBoard().checkStatus() == Constants.IN_PROGRESS) {
-                expandNode(promisingNode);
+            int selectedDepth = selectPromisingPath(root, virtualLoss, path);
+            MCTSTreeNode promisingNode = path[selectedDepth - 1];
+            // Expansion step - expand node if the game is not over and its result has not been proven
+            MCTSTreeNode newNode = null;
+            if (!promisingNode.isProven()
+                    && promisingNode.getGameState().getBoard().checkStatus() == Constants.IN_PROGRESS
+                    && (!virtualLoss || budget.canExpand())) {
+                if (useLazyExpansion) {
+                    newNode = expandOneNode(promisingNode, scratchState, table);
+                    budget.addNodes(newNode == null ? 0 : 1);
+                } else {
+                    budget.addNodes(expandNode(promisingNode, scratchState, table));
+                }
+                if (!virtualLoss && budget.isExceeded()) {
+                    // Only this thread searches the tree, so it can be pruned in place, keeping the selected path
+                    // so the node just added is still in the tree when its playouts are backpropagated.
+                    budget.setNodeCount(pruneTree(root, budget.getPruneTarget(), path, selectedDepth));
+                    table = root.getTranspositionTable();
+                }
             }
             MCTSTreeNode nodeToExplore;
-            // If the node is not a leaf node, then get a random successor
-            if (promisingNode.getSuccessorStates().size() == 0) {
+            int depth = selectedDepth;
+            // Explore the added successor, or a random successor if the node is not a leaf node
+            if (newNode != null) {
+                nodeToExplore = newNode;
+                path[depth++] = nodeToExplore;
+            } else if (promisingNode.getSuccessorStates().size() == 0 || promisingNode.isProven()) {
                 nodeToExplore = promisingNode;
             } else {
                 nodeToExplore = promisingNode.getRandomSuccessor();
+                path[depth++] = nodeToExplore;
+            }
+            if (useSolver) {
+                double status = nodeToExplore.getGameState().getBoard().checkStatus();
+                if (status != Constants.IN_PROGRESS) {
+                    nodeToExplore.setProvenScore(status);
+                }
             }
-            // Repeat a specified number of simulations
-            for(int simulation = 0; simulation < Constants.SIMULATIONS; simulation++) {
-                double playoutResult = simulateRandomPlayout(nodeToExplore);
-                backPropagation(nodeToExplore, playoutResult);
+            // Repeat a specified number of simulations and backpropagate their combined results
+            results[COMP_WIN_RESULT] = 0;
+            results[USER_WIN_RESULT] = 0;
+            results[DRAW_RESULT] = 0;
+            if (nodeToExplore.isProven()) {
+                // Every simulation from a proven node ends with its proven result.
+                addResult(nodeToExplore.getProvenScore(), getSimulationsPerIteration(), results);
+            } else if (useRave) {
+                simulatePlayoutsWithRave(path, depth, scratchState, results, playedColumns);
+            } else if (leafParallel) {
+                simulatePlayoutsInParallel(nodeToExplore.getGameState(), results);
+            } else {
+                scratchState.copyFrom(nodeToExplore.getGameState());
+                simulatePlayouts(scratchState, Constants.SIMULATIONS, results);
+            }
+            for (int i = depth - 1; i >= 0; i--) {
+                path[i].addResults(results[COMP_WIN_RESULT], results[USER_WIN_RESULT], results[DRAW_RESULT]);
+            }
+            if (useSolver && nodeToExplore.isProven()) {
+                propagateProvenScores(path, depth);
+            }
+            if (virtualLoss) {
+                for (int i = 1; i < selectedDepth; i++) {
+                    path[i].removeVirtualLoss();
+                }
             }
         }
+        return iteration;
+    }
 
-        MCTSTreeNode winnerNode = root.getSuccessorWithMaxScore();
-        return getColumnToMoveInto(root.getGameState().getBoard(), winnerNode.getGameState().getBoard());
+    /**
+     * Runs the MCTS iterations on the calling thread, growing a compact tree from the given root state.
+     * The position of each selected node is found by replaying the moves from the root on a scratch state.
+     *
+     * @param rootState    the game state of the root, which is only read.
+     * @param tree         the compact tree to grow, whose root holds the root state.
+     * @param limit        the iteration and time limit of the search.
+     * @param leafParallel true to run a batch of simulations from each node on every thread.
+     * @param budget       the node budget of the tree, which stops the tree from growing once it is reached.
+     * @return the number of iterations conducted.
+     */
+    private static int searchCompactTree(GameState rootState, CompactTree tree, SearchLimit limit,
+                                         boolean leafParallel, NodeBudget budget) {
+        GameState scratchState = new GameState(rootState);
+        Board board = scratchState.getBoard();
+        FastRandom random = FastRandom.current();
+        int[] results = new int[3];
+        int[] path = new int[Constants.NUM_ROWS * Constants.NUM_COLS + 2];
+
+        int iteration;
+        for (iteration = 0; !limit.isReached(iteration); iteration++) {
+            scratchState.copyFrom(rootState);
+            int node = 0;
+            int depth = 0;
+            path[depth++] = node;
+            // Selection step - replay the moves of the most promising path.
+            while (tree.getSuccessorCount(node) != 0) {
+                node = tree.findBestSuccessorWithUCT(node);
+                playColumn(scratchState, tree.getColumn(node));
+                path[depth++] = node;
+            }
+            // Expansion step - expand node if the game is not over, then move into a random successor
+            if (board.checkStatus() == Constants.IN_PROGRESS && budget.canExpand(tree.size())) {
+                tree.expand(node, getExpansionActions(board));
+                node = tree.getFirstSuccessor(node) + random.nextInt(tree.getSuccessorCount(node));
+                playColumn(scratchState, tree.getColumn(node));
+                path[depth++] = node;
+            }
+            // Repeat a specified number of simulations and backpropagate their combined results
+            results[COMP_WIN_RESULT] = 0;
+            results[USER_WIN_RESULT] = 0;
+            results[DRAW_RESULT] = 0;
+            if (leafParallel) {
+                simulatePlayoutsInParallel(scratchState, results);
+            } else {
+                simulatePlayouts(scratchState, Constants.SIMULATIONS, results);
+            }
+            for (int i = depth - 1; i >= 0; i--) {
+                tree.addResults(path[i], results[COMP_WIN_RESULT], results[USER_WIN_RESULT], results[DRAW_RESULT]);
+            }
+        }
+        return iteration;
+    }
+
+    /**
+     * Makes the opponent of the state's last player place a disc in the given column.
+     *
+     * @param state  the game state to make the move on.
+     * @param column the column to place the disc into.
+     */
+    private static void playColumn(GameState state, int column) {
+        state.togglePlayer();
+        Board board = state.getBoard();
+        board.performMove(state.getPlayerNum(), column, board.getNextEmptyRow(column));
+    }
+
+    /**
+     * Adds a number of simulations with the same result to the results.
+     *
+     * @param playoutResult the simulation result.
+     * @param count         the number of simulations.
+     * @param results       the computer win, user win, and draw counts to add to.
+     */
+    private static void addResult(double playoutResult, int count, int[] results) {
+        if (playoutResult == Constants.COMP_WIN) {
+            results[COMP_WIN_RESULT] += count;
+        } else if (playoutResult == Constants.USER_WIN) {
+            results[USER_WIN_RESULT] += count;
+        } else {
+            results[DRAW_RESULT] += count;
+        }
+    }
+
+    /**
+     * Proves the results of the nodes on the path above its last node, which has a proven result, stopping
+     * at the first node whose result cannot be proven yet.
+     *
+     * @param path  the nodes from the root to the proven node.
+     * @param depth the number of nodes in the path.
+     */
+    private static void propagateProvenScores(MCTSTreeNode[] path, int depth) {
+        for (int i = depth - 2; i >= 0 && !path[i].isProven(); i--) {
+            if (!proveNode(path[i])) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Proves the result of a node from its successors by minimax rules. The node is a proven win for the
+     * player moving from it if any successor is, and otherwise the node takes the best proven result of its
+     * successors for that player once all of its moves have been added and proven.
+     *
+     * @param node the node to prove.
+     * @return true if the result of the node is proven.
+     */
+    private static boolean proveNode(MCTSTreeNode node) {
+        boolean computerMoves = node.getGameState().getOpponent() == Constants.COMP_MOVE;
+        double win = computerMoves ? Constants.COMP_WIN : Constants.USER_WIN;
+        boolean allProven = !node.hasUntriedActions();
+        double best = computerMoves ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        for (MCTSTreeNode successor : node.getSuccessorStates()) {
+            if (!successor.isProven()) {
+                allProven = false;
+                continue;
+            }
+            double score = successor.getProvenScore();
+            if (score == win) {
+                node.setProvenScore(win);
+                return true;
+            }
+            best = computerMoves ? Math.max(best, score) : Math.min(best, score);
+        }
+        if (allProven && !node.getSuccessorStates().isEmpty()) {
+            node.setProvenScore(best);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Simulates a number of playouts from the given state, adding the number of computer wins, user wins,
+     * and draws to the results.
+     *
+     * @param state    the game state to start the simulations from, which is left unchanged.
+     * @param playouts the number of playouts to simulate.
+     * @param results  the computer win, user win, and draw counts to add to.
+     */
+    private static void simulatePlayouts(GameState state, int playouts, int[] results) {
+        for (int simulation = 0; simulation < playouts; simulation++) {
+            addResult(simulateRandomPlayout(state), 1, results);
+        }
+    }
+
+    /**
+     * Simulates a number of playouts from the last node of the given path, adding the number of computer wins,
+     * user wins, and draws to the results. The result of each playout is also added to the all-moves-as-first
+     * statistics of every node on the path, for the columns played after the node by the player moving from it.
+     *
+     * @param path          the nodes from the root to the node to simulate from.
+     * @param depth         the number of nodes in the path.
+     * @param scratchState  a game state that can be overwritten by the playouts.
+     * @param results       the computer win, user win, and draw counts to add to.
+     * @param playedColumns an array to store the columns played by each player in.
+     */
+    private static void simulatePlayoutsWithRave(MCTSTreeNode[] path, int depth, GameState scratchState,
+                                                 int[] results, int[] playedColumns) {
+        GameState state = path[depth - 1].getGameState();
+        for (int simulation = 0; simulation < Constants.SIMULATIONS; simulation++) {
+            scratchState.copyFrom(state);
+            playedColumns[Constants.USER_MOVE] = 0;
+            playedColumns[Constants.COMP_MOVE] = 0;
+            double playoutResult = simulatePlayout(scratchState, playedColumns);
+            addResult(playoutResult, 1, results);
+            // Walk up the path, adding the move into each node to the columns played below its parent.
+            for (int i = depth - 1; i >= 0; i--) {
+                GameState nodeState = path[i].getGameState();
+                path[i].addAmafResult(playedColumns[nodeState.getOpponent()], playoutResult);
+                if (i > 0) {
+                    int column = path[i - 1].getGameState().getBoard().findMoveColumn(nodeState.getBoard());
+                    playedColumns[nodeState.getPlayerNum()] |= 1 << column;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a batch of simulations from the given state on the calling thread and on each worker thread,
+     * adding the combined number of computer wins, user wins, and draws to the results. Each thread runs
+     * many playouts, since handing the worker threads only a few short playouts each would cost more than
+     * the playouts themselves.
+     *
+     * @param state   the game state to start the simulations from, which is only read.
+     * @param results the computer win, user win, and draw counts to add to.
+     */
+    private static void simulatePlayoutsInParallel(GameState state, int[] results) {
+        ExecutorService pool = getWorkerPool();
+        List<Future<int[]>> workers = new ArrayList<>();
+        for (int worker = 1; worker < threadCount; worker++) {
+            workers.add(pool.submit(() -> {
+                GameState scratchState = workerScratchState.get();
+                scratchState.copyFrom(state);
+                int[] workerResults = new int[3];
+                simulatePlayouts(scratchState, Constants.LEAF_SIMULATIONS_PER_THREAD, workerResults);
+                return workerResults;
+            }));
+        }
+        GameState scratchState = workerScratchState.get();
+        scratchState.copyFrom(state);
+        simulatePlayouts(scratchState, Constants.LEAF_SIMULATIONS_PER_THREAD, results);
+        for (int[] workerResults : awaitWorkers(workers)) {
+            results[COMP_WIN_RESULT] += workerResults[COMP_WIN_RESULT];
+            results[USER_WIN_RESULT] += workerResults[USER_WIN_RESULT];
+            results[DRAW_RESULT] += workerResults[DRAW_RESULT];
+        }
+    }
+
+    /**
+     * Runs the MCTS iterations on every thread. The calling thread grows the tree below the given root while
+     * each other thread grows its own tree from a copy of the root's game state. The statistics of the
+     * other trees' roots and their successors are then added to the given root and its matching successors.
+     *
+     * @param root  the MCTS Tree Node that contains the current board.
+     * @param limit the iteration and time limit of each thread's search.
+     * @return the number of iterations conducted by all threads.
+     */
+    private static int searchRootParallel(MCTSTreeNode root, SearchLimit limit) {
+        GameState rootState = new GameState(root.getGameState());
+        AtomicInteger iterationCount = new AtomicInteger();
+        boolean transpositions = root.getTranspositionTable() != null;
+        // The node budget is split between the threads' trees.
+        int treeMaxNodes = maxNodes == 0 ? 0 : Math.max(1, maxNodes / threadCount);
+        List<Future<MCTSTreeNode>> workers = submitWorkers(() -> {
+            if (useCompactTree) {
+                CompactTree tree = new CompactTree();
+                iterationCount.addAndGet(searchCompactTree(rootState, tree, limit, false,
+                        new NodeBudget(treeMaxNodes, 1)));
+                return tree.toTreeNode(rootState);
+            }
+            MCTSTreeNode workerRoot = new MCTSTreeNode(rootState);
+            if (transpositions) {
+                workerRoot.setTranspositionTable(new TranspositionTable());
+                workerRoot.getTranspositionTable().putIfAbsent(workerRoot);
+            }
+            iterationCount.addAndGet(search(workerRoot, limit, false, false, new NodeBudget(treeMaxNodes, 1)));
+            return workerRoot;
+        });
+        iterationCount.addAndGet(search(root, limit, false, false, createNodeBudget(root, treeMaxNodes)));
+
+        for (MCTSTreeNode workerRoot : awaitWorkers(workers)) {
+            mergeRootStatistics(root, workerRoot);
+        }
+        if (useSolver && !root.isProven()) {
+            // The successors may have been proven in different trees.
+            proveNode(root);
+        }
+        return iterationCount.get();
+    }
+
+    /**
+     * Runs the MCTS iterations on every thread, with all threads growing the single tree below the given root.
+     * Statistics are updated atomically, each node is expanded by one thread only, and virtual losses keep
+     * the threads from all following the same path.
+     *
+     * @param root  the MCTS Tree Node that contains the current board.
+     * @param limit the iteration and time limit of each thread's search.
+     * @return the number of iterations conducted by all threads.
+     */
+    private static int searchTreeParallel(MCTSTreeNode root, SearchLimit limit) {
+        NodeBudget budget = createNodeBudget(root, maxNodes);
+        List<Future<Integer>> workers = submitWorkers(() -> search(root, limit, true, false, budget));
+        int iterationCount = search(root, limit, true, false, budget);
+        for (int workerIterations : awaitWorkers(workers)) {
+            iterationCount += workerIterations;
+        }
+        return iterationCount;
+    }
+
+    /**
+     * Submits a task to the worker pool once for each thread other than the calling thread.
+     *
+     * @param task the task to run on each worker thread.
+     * @param <T>  the type of the task's result.
+     * @return the pending results of the tasks.
+     */
+    private static <T> List<Future<T>> submitWorkers(Callable<T> task) {
+        ExecutorService pool = getWorkerPool();
+        List<Future<T>> workers = new ArrayList<>();
+        for (int worker = 1; worker < threadCount; worker++) {
+            workers.add(pool.submit(task));
+        }
+        return workers;
+    }
+
+    /**
+     * Waits for the worker tasks to finish.
+     *
+     * @param workers the pending results of the tasks.
+     * @param <T>     the type of the task's result.
+     * @return the results of the tasks.
+     */
+    private static <T> List<T> awaitWorkers(List<Future<T>> workers) {
+        List<T> results = new ArrayList<>();
+        for (Future<T> worker : workers) {
+            try {
+                results.add(worker.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the MCTS threads.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("An MCTS thread failed.", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Adds the statistics of another tree's root and its successors to the given root and the successors
+     * containing the same boards.
+     *
+     * @param root      the root to add the statistics to.
+     * @param otherRoot the root of a tree grown from the same game state.
+     */
+    private static void mergeRootStatistics(MCTSTreeNode root, MCTSTreeNode otherRoot) {
+        if (root.getSuccessorStates().isEmpty() && !otherRoot.getSuccessorStates().isEmpty()) {
+            expandNode(root, new GameState(root.getGameState()), root.getTranspositionTable());
+        }
+        root.addStatistics(otherRoot);
+        for (MCTSTreeNode otherSuccessor : otherRoot.getSuccessorStates()) {
+            Board board = otherSuccessor.getGameState().getBoard();
+            for (MCTSTreeNode successor : root.getSuccessorStates()) {
+                if (successor.getGameState().getBoard().equals(board)) {
+                    successor.addStatistics(otherSuccessor);
+                    if (otherSuccessor.isProven()) {
+                        successor.setProvenScore(otherSuccessor.getProvenScore());
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the pool of daemon threads used by the parallel searches. Threads are created when needed and
+     * reused by later searches, so the pool follows changes to the thread count.
+     *
+     * @return the worker thread pool.
+     */
+    private static synchronized ExecutorService getWorkerPool() {
+        if (workerPool == null) {
+            workerPool = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "mcts-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return workerPool;
+    }
+
+    /**
+     * Promotes the successor of the given root that contains the given board to be the new root, keeping the
+     * statistics of its subtree for the next search. The new root is detached from the old root and, when
+     * nodes are shared, the transposition table is rebuilt from the nodes below the new root, so the rest of
+     * the old tree can be garbage collected. A new root is created if no successor contains the board.
+     *
+     * @param root  the current root of the search tree.
+     * @param board the board after the move that was made.
+     * @return the new root of the search tree.
+     */
+    public static MCTSTreeNode advanceRoot(MCTSTreeNode root, Board board) {
+        MCTSTreeNode newRoot = findSuccessor(root, board);
+        if (newRoot == null) {
+            GameState state = new GameState(board);
+            state.setPlayerNum(root.getGameState().getOpponent());
+            newRoot = new MCTSTreeNode(state);
+        }
+        newRoot.setParentNode(null);
+        if (root.getTranspositionTable() != null) {
+            newRoot.setTranspositionTable(rebuildTranspositionTable(newRoot));
+        }
+        lastReusedVisitCount = newRoot.getVisitCount();
+        return newRoot;
+    }
+
+    /**
+     * Creates a transposition table of the nodes reachable from the given root. A shared node whose parent
+     * is no longer reachable is given the reachable parent it was found through, so no reachable node keeps
+     * the released part of the tree alive.
+     *
+     * @param root the root of the search tree.
+     * @return the transposition table of the reachable nodes.
+     */
+    private static TranspositionTable rebuildTranspositionTable(MCTSTreeNode root) {
+        Map<MCTSTreeNode, MCTSTreeNode> foundThrough = new IdentityHashMap<>();
+        Deque<MCTSTreeNode> nodes = new ArrayDeque<>();
+        foundThrough.put(root, root);
+        nodes.push(root);
+        while (!nodes.isEmpty()) {
+            MCTSTreeNode node = nodes.pop();
+            for (MCTSTreeNode successor : node.getSuccessorStates()) {
+                if (!foundThrough.containsKey(successor)) {
+                    foundThrough.put(successor, node);
+                    nodes.push(successor);
+                }
+            }
+        }
+        TranspositionTable table = new TranspositionTable();
+        for (Map.Entry<MCTSTreeNode, MCTSTreeNode> entry : foundThrough.entrySet()) {
+            MCTSTreeNode node = entry.getKey();
+            if (node != root && !foundThrough.containsKey(node.getParentNode())) {
+                node.setParentNode(entry.getValue());
+            }
+            table.putIfAbsent(node);
+        }
+        return table;
+    }
+
+    /**
+     * Finds the successor of the given node that contains the given board. When mirrored positions share
+     * statistics, the successor containing the mirror image of the board is reflected in place, so the
+     * statistics of its subtree are kept and every column in the tree matches the real board.
+     *
+     * @param node  the MCTS tree node to search the successors of.
+     * @param board the board to find.
+     * @return the successor containing the board, or null if no successor contains the board.
+     */
+    public static MCTSTreeNode findSuccessor(MCTSTreeNode node, Board board) {
+        for (MCTSTreeNode successor : node.getSuccessorStates()) {
+            if (successor.getGameState().getBoard().equals(board)) {
+                return successor;
+            }
+        }
+        if (useSymmetry && node.getGameState().getBoard().isSymmetric()) {
+            Board mirroredBoard = board.getMirroredBoard();
+            for (MCTSTreeNode successor : node.getSuccessorStates()) {
+                if (successor.getGameState().getBoard().equals(mirroredBoard)) {
+                    successor.mirror();
+                    return successor;
+                }
+            }
+        }
+        return null;
     }
 
     /**
@@ -84,7 +1011,8 @@ public class MCTSAlgorithm {
     public static int getColumnToMoveInto(Board currentBoard, Board nextBoard) {
         for (int row = 0; row < Constants.NUM_ROWS; row++) {
             for (int col = 0; col < Constants.NUM_COLS; col++) {
-                if (currentBoard.getDisc(col, row) == null && nextBoard.getDisc(col, row) != null) {
+                if (currentBoard.getCell(col, row) == Constants.EMPTY_CELL
+                        && nextBoard.getCell(col, row) != Constants.EMPTY_CELL) {
                     return col;
                 }
             }
@@ -100,25 +1028,243 @@ public class MCTSAlgorithm {
      */
     public static MCTSTreeNode selectPromisingNode(MCTSTreeNode rootNode) {
         MCTSTreeNode node = rootNode;
-        while (node.getSuccessorStates().size() != 0) {
+        while (node.getSuccessorStates().size() != 0 && !node.hasUntriedActions()) {
             node = UCT.findBestNodeWithUCT(node);
         }
         return node;
     }
 
+    /**
+     * Selects the most promising node to explore by traversing down the nodes selecting the max UCT values,
+     * recording each node on the way in the given path.
+     *
+     * @param rootNode    the node to start searching from.
+     * @param virtualLoss true to add a virtual loss to each selected node below the root.
+     * @param path        the array to store the nodes from the root to the most promising node in.
+     * @return the number of nodes in the path, where the last node is the most promising node.
+     */
+    private static int selectPromisingPath(MCTSTreeNode rootNode, boolean virtualLoss, MCTSTreeNode[] path) {
+        MCTSTreeNode node = rootNode;
+        int depth = 0;
+        path[depth++] = node;
+        while (node.getSuccessorStates().size() != 0 && !node.hasUntriedActions() && !node.isProven()) {
+            node = useRave ? UCT.findBestNodeWithRAVE(node) : UCT.findBestNodeWithUCT(node);
+            if (virtualLoss) {
+                node.addVirtualLoss();
+            }
+            path[depth++] = node;
+        }
+        return depth;
+    }
+
     /**
      * Generate all successor states.
      *
      * @param node the MCTSTreeNode to find all successors of.
      */
     public static void expandNode(MCTSTreeNode node) {
-        List<GameState> possibleStates = node.getGameState().getAllPossibleNextStates();
-        possibleStates.forEach(state -> {
-            MCTSTreeNode newNode = new MCTSTreeNode(state);
+        expandNode(node, new GameState(node.getGameState()));
+    }
+
+    /**
+     * Generate all successor states, making and undoing each move on a scratch state so that each
+     * successor's game state is only copied once. Nothing is done if the node has already been expanded.
+     *
+     * @param node         the MCTSTreeNode to find all successors of.
+     * @param scratchState a game state that can be overwritten while generating the successors.
+     */
+    public static void expandNode(MCTSTreeNode node, GameState scratchState) {
+        expandNode(node, scratchState, null);
+    }
+
+    /**
+     * Generate all successor states, reusing the nodes in the transposition table for successors whose
+     * positions have already been reached through a different order of moves.
+     *
+     * @param node         the MCTSTreeNode to find all successors of.
+     * @param scratchState a game state that can be overwritten while generating the successors.
+     * @param table        the table of shared nodes, or null if nodes are not shared.
+     * @return the number of nodes created, which excludes the shared nodes that were reused.
+     */
+    private static int expandNode(MCTSTreeNode node, GameState scratchState, TranspositionTable table) {
+        if (!node.tryBeginExpansion()) {
+            // Another thread is expanding or has expanded the node.
+            return 0;
+        }
+        int createdNodes = 0;
+        scratchState.copyFrom(node.getGameState());
+        int player = node.getGameState().getOpponent();
+        scratchState.setPlayerNum(player);
+        Board board = scratchState.getBoard();
+        int possibleActions = getExpansionActions(board);
+        List<MCTSTreeNode> successors = new ArrayList<>(Integer.bitCount(possibleActions));
+        for (int actions = possibleActions; actions != 0; actions &= actions - 1) {
+            int column = Integer.numberOfTrailingZeros(actions);
+            board.performMove(player, column, board.getNextEmptyRow(column));
+            MCTSTreeNode newNode = table == null ? null : table.get(scratchState);
+            if (newNode == null) {
+                newNode = new MCTSTreeNode(scratchState);
+                newNode.setParentNode(node);
+                if (table != null) {
+                    newNode = table.putIfAbsent(newNode);
+                }
+                createdNodes++;
+            }
+            board.undoMove(column);
+            successors.add(newNode);
+        }
+        node.setSuccessorStates(successors);
+        return createdNodes;
+    }
+
+    /**
+     * Creates the node budget for a search of the given tree. A tree that is already over the budget, such
+     * as one kept from the previous move, is pruned first.
+     *
+     * @param root  the root of the tree.
+     * @param nodes the maximum number of nodes in the tree, or 0 for no limit.
+     * @return the node budget of the tree.
+     */
+    private static NodeBudget createNodeBudget(MCTSTreeNode root, int nodes) {
+        if (nodes == 0) {
+            return new NodeBudget(0, 0);
+        }
+        NodeBudget budget = new NodeBudget(nodes, countNodes(root));
+        if (budget.isExceeded()) {
+            budget.setNodeCount(pruneTree(root, budget.getPruneTarget(), new MCTSTreeNode[] {root}, 1));
+        }
+        return budget;
+    }
+
+    /**
+     * Counts the nodes reachable from the given root, counting each shared node once.
+     *
+     * @param root the root of the tree.
+     * @return the number of nodes in the tree.
+     */
+    private static int countNodes(MCTSTreeNode root) {
+        Set<MCTSTreeNode> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<MCTSTreeNode> nodes = new ArrayDeque<>();
+        counted.add(root);
+        nodes.push(root);
+        while (!nodes.isEmpty()) {
+            for (MCTSTreeNode successor : nodes.pop().getSuccessorStates()) {
+                if (counted.add(successor)) {
+                    nodes.push(successor);
+                }
+            }
+        }
+        return counted.size();
+    }
+
+    /**
+     * Collapses the least valuable subtrees until the tree holds no more than the target number of nodes.
+     * Each pass collapses nodes whose successors have not been expanded, starting with the nodes with the
+     * fewest visits and, among those, the nodes furthest from the root. The nodes on the given path, which
+     * starts at the root, are never collapsed.
+     *
+     * @param root   the root of the tree.
+     * @param target the number of nodes to prune the tree down to.
+     * @param path   the nodes from the root to the node being searched, which are kept with their successors.
+     * @param depth  the number of nodes in the path.
+     * @return the number of nodes left in the tree.
+     */
+    private static int pruneTree(MCTSTreeNode root, int target, MCTSTreeNode[] path, int depth) {
+        Set<MCTSTreeNode> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        kept.addAll(Arrays.asList(path).subList(0, depth));
+        int nodeCount = countNodes(root);
+        while (nodeCount > target) {
+            Map<MCTSTreeNode, Integer> depths = new IdentityHashMap<>();
+            List<MCTSTreeNode> candidates = new ArrayList<>();
+            Deque<MCTSTreeNode> nodes = new ArrayDeque<>();
+            depths.put(root, 0);
+            nodes.add(root);
+            while (!nodes.isEmpty()) {
+                MCTSTreeNode node = nodes.poll();
+                boolean frontier = !kept.contains(node) && !node.getSuccessorStates().isEmpty();
+                for (MCTSTreeNode successor : node.getSuccessorStates()) {
+                    frontier &= successor.getSuccessorStates().isEmpty();
+                    if (!depths.containsKey(successor)) {
+                        depths.put(successor, depths.get(node) + 1);
+                        nodes.add(successor);
+                    }
+                }
+                if (frontier) {
+                    candidates.add(node);
+                }
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+            candidates.sort(Comparator.comparingInt(MCTSTreeNode::getVisitCount)
+                    .thenComparing(node -> depths.get(node), Comparator.reverseOrder()));
+            for (MCTSTreeNode candidate : candidates) {
+                if (nodeCount <= target) {
+                    break;
+                }
+                nodeCount -= candidate.getSuccessorStates().size();
+                candidate.collapse();
+            }
+            if (root.getTranspositionTable() != null) {
+                // Shared successors may still be reachable through other parents.
+                root.setTranspositionTable(rebuildTranspositionTable(root));
+                nodeCount = root.getTranspositionTable().size();
+            }
+        }
+        return nodeCount;
+    }
+
+    /**
+     * Adds the successor for one random untried move of the given node, reusing the node in the
+     * transposition table if the successor's position has already been reached.
+     *
+     * @param node         the MCTSTreeNode to add a successor to.
+     * @param scratchState a game state that can be overwritten while generating the successor.
+     * @param table        the table of shared nodes, or null if nodes are not shared.
+     * @return the added successor, or null if every move of the node has already been tried.
+     */
+    private static MCTSTreeNode expandOneNode(MCTSTreeNode node, GameState scratchState, TranspositionTable table) {
+        if (!node.isTrackingUntriedActions()) {
+            if (!node.getSuccessorStates().isEmpty()) {
+                // The node has already been fully expanded.
+                return null;
+            }
+            node.initUntriedActions(getExpansionActions(node.getGameState().getBoard()));
+        }
+        int column = node.claimUntriedAction();
+        if (column == -1) {
+            return null;
+        }
+        scratchState.copyFrom(node.getGameState());
+        int player = node.getGameState().getOpponent();
+        scratchState.setPlayerNum(player);
+        Board board = scratchState.getBoard();
+        board.performMove(player, column, board.getNextEmptyRow(column));
+        MCTSTreeNode newNode = table == null ? null : table.get(scratchState);
+        if (newNode == null) {
+            newNode = new MCTSTreeNode(scratchState);
             newNode.setParentNode(node);
-            newNode.getGameState().setPlayerNum(node.getGameState().getOpponent());
-            node.getSuccessorStates().add(newNode);
-        });
+            if (table != null) {
+                newNode = table.putIfAbsent(newNode);
+            }
+        }
+        node.addSuccessor(newNode);
+        return newNode;
+    }
+
+    /**
+     * Returns the columns to add successors for when expanding a node with the given board.
+     *
+     * @param board the board of the node to expand.
+     * @return the bitmask of the columns to expand.
+     */
+    private static int getExpansionActions(Board board) {
+        int possibleActions = board.getPossibleActionsMask();
+        if (useSymmetry && board.isSymmetric()) {
+            // Columns to the right of the middle lead to mirror images of the columns to the left.
+            possibleActions &= (1 << ((Constants.NUM_COLS + 1) / 2)) - 1;
+        }
+        return possibleActions;
     }
 
     /**
@@ -129,16 +1275,28 @@ public class MCTSAlgorithm {
      * @param playoutResult the simulation result.
      */
     public static void backPropagation(MCTSTreeNode nodeToExplore, double playoutResult) {
+        if (playoutResult == Constants.COMP_WIN) {
+            backPropagation(nodeToExplore, 1, 0, 0);
+        } else if (playoutResult == Constants.USER_WIN) {
+            backPropagation(nodeToExplore, 0, 1, 0);
+        } else {
+            backPropagation(nodeToExplore, 0, 0, 1);
+        }
+    }
+
+    /**
+     * Conducts back propagation through the parents of the given node to update the nodes
+     * based on the combined results of several simulations, in a single pass up the tree.
+     *
+     * @param nodeToExplore the node that was explored.
+     * @param compWins      the number of simulations that ended in a computer win.
+     * @param userWins      the number of simulations that ended in a user win.
+     * @param draws         the number of simulations that ended in a draw.
+     */
+    public static void backPropagation(MCTSTreeNode nodeToExplore, int compWins, int userWins, int draws) {
         MCTSTreeNode tempNode = nodeToExplore;
         while (tempNode != null) {
-            tempNode.addVisit();
-            if (playoutResult == Constants.COMP_WIN) {
-                tempNode.addCompWin();
-            } else if (playoutResult == Constants.USER_WIN) {
-                tempNode.addUserWin();
-            } else {
-                tempNode.addDraw();
-            }
+            tempNode.addResults(compWins, userWins, draws);
             tempNode = tempNode.getParentNode();
         }
     }
@@ -150,14 +1308,160 @@ public class MCTSAlgorithm {
      * @return a constants representing the result of the game.
      */
     public static double simulateRandomPlayout(MCTSTreeNode node) {
-        // Simulate until over
-        GameState tempState = new GameState(node.getGameState());
-        double boardStatus = tempState.getBoard().checkStatus();
+        return simulateRandomPlayout(new GameState(node.getGameState()));
+    }
+
+    /**
+     * Simulates the completion of a connect 4 game from the given state and returns the result, choosing
+     * moves with the playout policy. The moves of the playout are undone afterwards, so the state is left
+     * as it was given.
+     *
+     * @param state the game state to start simulation from.
+     * @return a constants representing the result of the game.
+     */
+    public static double simulateRandomPlayout(GameState state) {
+        return simulatePlayout(state, null);
+    }
+
+    /**
+     * Simulates the completion of a connect 4 game from the given state, choosing moves with the playout
+     * policy, and undoes the moves afterwards. The result is estimated once the playout cutoff is reached.
+     *
+     * @param state         the game state to start simulation from.
+     * @param playedColumns an array to add the columns played by each player to, indexed by player, or null.
+     * @return a constants representing the result of the game.
+     */
+    private static double simulatePlayout(GameState state, int[] playedColumns) {
+        int player = state.getPlayerNum();
+        int moves = 0;
+        boolean tactical = playoutPolicy == PlayoutPolicy.TACTICAL;
+        int cutoff = playoutCutoff == 0 ? Integer.MAX_VALUE : playoutCutoff;
+        // Simulate until over, or estimate the result once the cutoff is reached
+        double boardStatus = state.getBoard().checkStatus();
         while (boardStatus == Constants.IN_PROGRESS) {
-            tempState.togglePlayer();
-            tempState.randomPlay();
-            boardStatus = tempState.getBoard().checkStatus();
+            if (moves == cutoff) {
+                boardStatus = PositionEvaluator.evaluate(state.getBoard(), state.getOpponent());
+                break;
+            }
+            state.togglePlayer();
+            int column = tactical ? state.tacticalPlay() : state.randomPlay();
+            if (playedColumns != null) {
+                playedColumns[state.getPlayerNum()] |= 1 << column;
+            }
+            moves++;
+            boardStatus = state.getBoard().checkStatus();
         }
+        // Rewind the playout
+        for (; moves > 0; moves--) {
+            state.undoMove();
+        }
+        state.setPlayerNum(player);
         return boardStatus;
     }
+
+    /**
+     * This class tracks the number of nodes in a search tree against the maximum number of nodes.
+     */
+    private static final class NodeBudget {
+        private final int maxNodes;
+        private final AtomicInteger nodeCount;
+
+        /**
+         * Constructor
+         *
+         * @param maxNodes  the maximum number of nodes, or 0 for no limit.
+         * @param nodeCount the number of nodes already in the tree.
+         */
+        NodeBudget(int maxNodes, int nodeCount) {
+            this.maxNodes = maxNodes;
+            this.nodeCount = new AtomicInteger(nodeCount);
+        }
+
+        /**
+         * Checks if the tree can grow without going over the budget.
+         *
+         * @return true if there is no limit or the tree holds fewer nodes than the maximum.
+         */
+        boolean canExpand() {
+            return canExpand(nodeCount.get());
+        }
+
+        /**
+         * Checks if a tree of the given size can grow without going over the budget.
+         *
+         * @param size the number of nodes in the tree.
+         * @return true if there is no limit or the size is below the maximum.
+         */
+        boolean canExpand(int size) {
+            return maxNodes == 0 || size < maxNodes;
+        }
+
+        /**
+         * Checks if the tree holds more nodes than the maximum.
+         *
+         * @return true if there is a limit and the tree is over it.
+         */
+        boolean isExceeded() {
+            return maxNodes != 0 && nodeCount.get() > maxNodes;
+        }
+
+        /**
+         * Returns the number of nodes to prune the tree down to once it is over the budget, leaving room
+         * for the tree to grow before it has to be pruned again.
+         *
+         * @return the target number of nodes.
+         */
+        int getPruneTarget() {
+            return maxNodes - maxNodes / 4;
+        }
+
+        /**
+         * Adds to the number of nodes in the tree.
+         *
+         * @param nodes the number of nodes added.
+         */
+        void addNodes(int nodes) {
+            nodeCount.addAndGet(nodes);
+        }
+
+        /**
+         * Sets the number of nodes in the tree after it has been pruned.
+         *
+         * @param nodes the number of nodes in the tree.
+         */
+        void setNodeCount(int nodes) {
+            nodeCount.set(nodes);
+        }
+    }
+
+    /**
+     * This class holds the number of iterations and the time a search may run for.
+     */
+    private static final class SearchLimit {
+        private final int iterations;
+        private final boolean timed;
+        private final long deadline;
+
+        /**
+         * Constructor
+         *
+         * @param iterations  the maximum number of iterations.
+         * @param budgetNanos the time to search for in nanoseconds, or 0 for no time limit.
+         */
+        SearchLimit(int iterations, long budgetNanos) {
+            this.iterations = iterations;
+            this.timed = budgetNanos > 0;
+            this.deadline = System.nanoTime() + budgetNanos;
+        }
+
+        /**
+         * Checks if the search should stop before the given iteration.
+         *
+         * @param iteration the number of iterations conducted so far.
+         * @return true if the iteration limit or the deadline has been reached.
+         */
+        boolean isReached(int iteration) {
+            return iteration >= iterations || (timed && System.nanoTime() - deadline >= 0);
+        }
+    }
 }
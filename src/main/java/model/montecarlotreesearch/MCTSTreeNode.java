@@ -1,21 +1,61 @@
 package model.montecarlotreesearch;
 
 import application.Constants;
+import model.environment.Board;
+import model.environment.FastRandom;
 import model.environment.GameState;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * This class represents a tree node in the MCTS algorithm.
+ * <p>
+ * The statistics are updated atomically so several threads can search the same tree. Successors are
+ * published all at once after an expansion, and only the thread that claims the expansion creates them.
+ * When successors are added one at a time instead, each untried move is claimed by a single thread and
+ * the successor list is replaced by a copy with the new successor.
  */
 public class MCTSTreeNode {
+    private static final AtomicIntegerFieldUpdater<MCTSTreeNode> VISIT_COUNT =
+            AtomicIntegerFieldUpdater.newUpdater(MCTSTreeNode.class, "visitCount");
+    private static final AtomicIntegerFieldUpdater<MCTSTreeNode> COMP_WINS =
+            AtomicIntegerFieldUpdater.newUpdater(MCTSTreeNode.class, "compWins");
+    private static final AtomicIntegerFieldUpdater<MCTSTreeNode> USER_WINS =
+            AtomicIntegerFieldUpdater.newUpdater(MCTSTreeNode.class, "userWins");
+    private static final AtomicIntegerFieldUpdater<MCTSTreeNode> DRAWS =
+            AtomicIntegerFieldUpdater.newUpdater(MCTSTreeNode.class, "draws");
+    private static final AtomicIntegerFieldUpdater<MCTSTreeNode> VIRTUAL_LOSSES =
+            AtomicIntegerFieldUpdater.newUpdater(MCTSTreeNode.class, "virtualLosses");
+    private static final AtomicIntegerFieldUpdater<MCTSTreeNode> EXPANSION_STATE =
+            AtomicIntegerFieldUpdater.newUpdater(MCTSTreeNode.class, "expansionState");
+    private static final AtomicIntegerFieldUpdater<MCTSTreeNode> UNTRIED_ACTIONS =
+            AtomicIntegerFieldUpdater.newUpdater(MCTSTreeNode.class, "untriedActions");
+
+    private static final int UNKNOWN_ACTIONS = -1;
+    private static final int AMAF_VISITS = 0;
+    private static final int AMAF_COMP_WINS = 1;
+    private static final int AMAF_USER_WINS = 2;
+    private static final int AMAF_FIELDS = 3;
+
+    private static final int UNEXPANDED = 0;
+    private static final int EXPANDING = 1;
+    private static final int EXPANDED = 2;
+
     private GameState gameState;
     private MCTSTreeNode parentNode;
-    private List<MCTSTreeNode> successorStates;
-    private int visitCount;
-    private int compWins;
-    private int userWins;
-    private int draws;
+    private TranspositionTable transpositionTable;
+    private volatile List<MCTSTreeNode> successorStates;
+    private volatile int visitCount;
+    private volatile int compWins;
+    private volatile int userWins;
+    private volatile int draws;
+    private volatile int virtualLosses;
+    private volatile int expansionState;
+    private volatile int untriedActions;
+    private volatile AtomicIntegerArray amafStatistics;
+    private volatile double provenScore;
 
     /**
      * Constructor
@@ -29,6 +69,10 @@ public class MCTSTreeNode {
         compWins = 0;
         userWins = 0;
         draws = 0;
+        virtualLosses = 0;
+        expansionState = UNEXPANDED;
+        untriedActions = UNKNOWN_ACTIONS;
+        provenScore = Constants.IN_PROGRESS;
     }
 
     /**
@@ -49,15 +93,101 @@ public class MCTSTreeNode {
         return successorStates;
     }
 
+    /**
+     * Claims the expansion of this node. Only the first caller succeeds, so the successors of a node
+     * are created exactly once even when several threads reach it at the same time.
+     *
+     * @return true if the caller should expand the node, false if it has already been claimed.
+     */
+    public boolean tryBeginExpansion() {
+        return EXPANSION_STATE.compareAndSet(this, UNEXPANDED, EXPANDING);
+    }
+
+    /**
+     * Publishes the successors created by an expansion, replacing the current successors.
+     *
+     * @param successors the successors of this node.
+     */
+    public void setSuccessorStates(List<MCTSTreeNode> successors) {
+        successorStates = successors;
+        expansionState = EXPANDED;
+    }
+
+    /**
+     * Removes the successors of the node while keeping its statistics, so the node can be expanded again.
+     */
+    public void collapse() {
+        successorStates = new ArrayList<>();
+        untriedActions = UNKNOWN_ACTIONS;
+        expansionState = UNEXPANDED;
+    }
+
+    /**
+     * Sets the moves that have not yet been added as successors, unless they have already been set.
+     *
+     * @param actions the bitmask of the columns that can be played from this node.
+     */
+    public void initUntriedActions(int actions) {
+        UNTRIED_ACTIONS.compareAndSet(this, UNKNOWN_ACTIONS, actions);
+    }
+
+    /**
+     * Returns whether the moves that have not yet been added as successors are being tracked.
+     *
+     * @return true if the untried moves have been set.
+     */
+    public boolean isTrackingUntriedActions() {
+        return untriedActions != UNKNOWN_ACTIONS;
+    }
+
+    /**
+     * Returns whether there are moves that have not yet been added as successors.
+     *
+     * @return true if at least one untried move is left.
+     */
+    public boolean hasUntriedActions() {
+        return untriedActions > 0;
+    }
+
+    /**
+     * Claims a random untried move, so that only the caller adds the successor for it.
+     *
+     * @return the column of the claimed move, or -1 if no untried move is left.
+     */
+    public int claimUntriedAction() {
+        FastRandom random = FastRandom.current();
+        while (true) {
+            int actions = untriedActions;
+            if (actions <= 0) {
+                return -1;
+            }
+            int column = Board.getNthAction(actions, random.nextInt(Integer.bitCount(actions)));
+            if (UNTRIED_ACTIONS.compareAndSet(this, actions, actions & ~(1 << column))) {
+                return column;
+            }
+        }
+    }
+
+    /**
+     * Adds a successor created for a claimed untried move.
+     *
+     * @param successor the successor to add.
+     */
+    public synchronized void addSuccessor(MCTSTreeNode successor) {
+        List<MCTSTreeNode> successors = new ArrayList<>(successorStates.size() + 1);
+        successors.addAll(successorStates);
+        successors.add(successor);
+        successorStates = successors;
+    }
+
     /**
      * Returns a random successor.
      *
      * @return a random child.
      */
     public MCTSTreeNode getRandomSuccessor() {
-        Random random = new Random();
-        int childIndex = random.nextInt(successorStates.size());
-        return successorStates.get(childIndex);
+        List<MCTSTreeNode> successors = successorStates;
+        return successors.get(FastRandom.current().nextInt(successors.size()));
     }
 
     /**
@@ -69,6 +199,15 @@ public class MCTSTreeNode {
         return visitCount;
     }
 
+    /**
+     * Returns the number of threads currently searching below this node.
+     *
+     * @return the number of virtual losses applied to this node.
+     */
+    public int getVirtualLosses() {
+        return virtualLosses;
+    }
+
     /**
      * Returns the number of computer wins that have occurred through this node.
      *
@@ -123,32 +262,240 @@ public class MCTSTreeNode {
         this.parentNode = parent;
     }
 
+    /**
+     * Returns the table of shared nodes used when this node is the root of a search.
+     *
+     * @return the transposition table, or null if nodes are not shared.
+     */
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Sets the table of shared nodes used when this node is the root of a search.
+     *
+     * @param table the transposition table, or null if nodes are not shared.
+     */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.transpositionTable = table;
+    }
+
     /**
      * Adds 1 to the number of visits to the node.
      */
     public void addVisit() {
-        visitCount++;
+        VISIT_COUNT.incrementAndGet(this);
     }
 
     /**
      * Adds 1 to the number of user wins through the node.
      */
     public void addUserWin() {
-        userWins++;
+        USER_WINS.incrementAndGet(this);
     }
 
     /**
      * Adds 1 to the number of computer wins through the node.
      */
     public void addCompWin() {
-        compWins++;
+        COMP_WINS.incrementAndGet(this);
     }
 
     /**
      * Adds 1 to the number of draws through the node.
      */
     public void addDraw() {
-        draws++;
+        DRAWS.incrementAndGet(this);
+    }
+
+    /**
+     * Adds the results of several simulations through the node, adding one visit for each simulation.
+     *
+     * @param compWinCount the number of simulations that ended in a computer win.
+     * @param userWinCount the number of simulations that ended in a user win.
+     * @param drawCount    the number of simulations that ended in a draw.
+     */
+    public void addResults(int compWinCount, int userWinCount, int drawCount) {
+        VISIT_COUNT.addAndGet(this, compWinCount + userWinCount + drawCount);
+        if (compWinCount != 0) {
+            COMP_WINS.addAndGet(this, compWinCount);
+        }
+        if (userWinCount != 0) {
+            USER_WINS.addAndGet(this, userWinCount);
+        }
+        if (drawCount != 0) {
+            DRAWS.addAndGet(this, drawCount);
+        }
+    }
+
+    /**
+     * Returns whether the result of the game from this node has been proven.
+     *
+     * @return true if the node has a proven result.
+     */
+    public boolean isProven() {
+        return provenScore != Constants.IN_PROGRESS;
+    }
+
+    /**
+     * Returns the proven result of the game from this node.
+     *
+     * @return Constants.COMP_WIN, Constants.USER_WIN, or Constants.DRAW_SCORE if the result has been proven,
+     * otherwise Constants.IN_PROGRESS.
+     */
+    public double getProvenScore() {
+        return provenScore;
+    }
+
+    /**
+     * Sets the proven result of the game from this node.
+     *
+     * @param score Constants.COMP_WIN, Constants.USER_WIN, or Constants.DRAW_SCORE.
+     */
+    public void setProvenScore(double score) {
+        provenScore = score;
+    }
+
+    /**
+     * Adds the result of a simulation to the all-moves-as-first statistics of each of the given columns.
+     * The statistics of a column count every simulation through this node in which the player moving from
+     * this node played in the column at any later point.
+     *
+     * @param columns       a bitmask of the columns played later by the player moving from this node.
+     * @param playoutResult the simulation result.
+     */
+    public void addAmafResult(int columns, double playoutResult) {
+        AtomicIntegerArray statistics = amafStatistics;
+        if (statistics == null) {
+            statistics = createAmafStatistics();
+        }
+        for (; columns != 0; columns &= columns - 1) {
+            int index = Integer.numberOfTrailingZeros(columns) * AMAF_FIELDS;
+            statistics.incrementAndGet(index + AMAF_VISITS);
+            if (playoutResult == Constants.COMP_WIN) {
+                statistics.incrementAndGet(index + AMAF_COMP_WINS);
+            } else if (playoutResult == Constants.USER_WIN) {
+                statistics.incrementAndGet(index + AMAF_USER_WINS);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of simulations counted by the all-moves-as-first statistics of a column.
+     *
+     * @param column the column of the move from this node.
+     * @return the number of simulations.
+     */
+    public int getAmafVisitCount(int column) {
+        AtomicIntegerArray statistics = amafStatistics;
+        return statistics == null ? 0 : statistics.get(column * AMAF_FIELDS + AMAF_VISITS);
+    }
+
+    /**
+     * Returns the average score of the simulations counted by the all-moves-as-first statistics of a column.
+     *
+     * @param column the column of the move from this node.
+     * @return the average score of the simulations.
+     */
+    public double getAmafAverageScore(int column) {
+        AtomicIntegerArray statistics = amafStatistics;
+        int index = column * AMAF_FIELDS;
+        int visits = statistics.get(index + AMAF_VISITS);
+        int compWinCount = statistics.get(index + AMAF_COMP_WINS);
+        int userWinCount = statistics.get(index + AMAF_USER_WINS);
+        return ((visits - compWinCount - userWinCount) * Constants.DRAW_SCORE + userWinCount * Constants.USER_WIN
+                + compWinCount * Constants.COMP_WIN) / visits;
+    }
+
+    /**
+     * Swaps the all-moves-as-first statistics of each column with those of its mirror image column.
+     */
+    private void mirrorAmafStatistics() {
+        AtomicIntegerArray statistics = amafStatistics;
+        for (int column = 0; column < Constants.NUM_COLS / 2; column++) {
+            int index = column * AMAF_FIELDS;
+            int mirrorIndex = (Constants.NUM_COLS - 1 - column) * AMAF_FIELDS;
+            for (int field = 0; field < AMAF_FIELDS; field++) {
+                int value = statistics.get(index + field);
+                statistics.set(index + field, statistics.get(mirrorIndex + field));
+                statistics.set(mirrorIndex + field, value);
+            }
+        }
+    }
+
+    /**
+     * Creates the all-moves-as-first statistics of the node, unless another thread already has.
+     *
+     * @return the all-moves-as-first statistics.
+     */
+    private synchronized AtomicIntegerArray createAmafStatistics() {
+        if (amafStatistics == null) {
+            amafStatistics = new AtomicIntegerArray(Constants.NUM_COLS * AMAF_FIELDS);
+        }
+        return amafStatistics;
+    }
+
+    /**
+     * Adds a virtual loss to the node while a thread searches below it, so other threads are
+     * steered towards different nodes.
+     */
+    public void addVirtualLoss() {
+        VIRTUAL_LOSSES.incrementAndGet(this);
+    }
+
+    /**
+     * Removes a virtual loss once a thread has backpropagated its result through the node.
+     */
+    public void removeVirtualLoss() {
+        VIRTUAL_LOSSES.decrementAndGet(this);
+    }
+
+    /**
+     * Adds the visits, wins, and draws of another node to this node.
+     *
+     * @param other the node whose statistics are added.
+     */
+    public void addStatistics(MCTSTreeNode other) {
+        VISIT_COUNT.addAndGet(this, other.visitCount);
+        COMP_WINS.addAndGet(this, other.compWins);
+        USER_WINS.addAndGet(this, other.userWins);
+        DRAWS.addAndGet(this, other.draws);
+    }
+
+    /**
+     * Reflects the game state of this node and all of its successors left to right.
+     */
+    public void mirror() {
+        // Shared nodes can be reached from more than one parent, but must only be reflected once.
+        Set<MCTSTreeNode> mirrored = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<MCTSTreeNode> nodes = new ArrayDeque<>();
+        nodes.push(this);
+        while (!nodes.isEmpty()) {
+            MCTSTreeNode node = nodes.pop();
+            if (mirrored.add(node)) {
+                node.gameState.getBoard().mirror();
+                int actions = node.untriedActions;
+                if (actions != UNKNOWN_ACTIONS) {
+                    node.untriedActions = mirrorActions(actions);
+                }
+                if (node.amafStatistics != null) {
+                    node.mirrorAmafStatistics();
+                }
+                for (MCTSTreeNode successor : node.successorStates) {
+                    nodes.push(successor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reflects a bitmask of columns left to right, so column c becomes column {@code NUM_COLS - 1 - c}.
+     *
+     * @param actions the bitmask of columns.
+     * @return the reflected bitmask.
+     */
+    private static int mirrorActions(int actions) {
+        return Integer.reverse(actions) >>> (Integer.SIZE - Constants.NUM_COLS);
     }
 
     /**
@@ -157,8 +504,19 @@ public class MCTSTreeNode {
      * @return the child with the max average state score.
      */
     public MCTSTreeNode getSuccessorWithMaxScore() {
-        return Collections.max(
-                this.getSuccessorStates(),
-                Comparator.comparing(c -> c.getAverageStateScore()));
+        List<MCTSTreeNode> successors = successorStates;
+        if (successors.isEmpty()) {
+            throw new NoSuchElementException("The node has no successors.");
+        }
+        MCTSTreeNode bestNode = successors.get(0);
+        double bestScore = bestNode.getAverageStateScore();
+        for (int i = 1; i < successors.size(); i++) {
+            double score = successors.get(i).getAverageStateScore();
+            if (Double.compare(score, bestScore) > 0) {
+                bestNode = successors.get(i);
+                bestScore = score;
+            }
+        }
+        return bestNode;
     }
 }
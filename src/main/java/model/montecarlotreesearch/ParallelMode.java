@@ -0,0 +1,19 @@
+package model.montecarlotreesearch;
+
+/**
+ * This enum lists the ways the MCTS algorithm can use more than one thread.
+ */
+public enum ParallelMode {
+    /**
+     * Each thread grows an independent tree from the root and the statistics of the root's successors are summed.
+     */
+    ROOT,
+    /**
+     * All threads search a single shared tree, using virtual losses to spread out over different nodes.
+     */
+    TREE,
+    /**
+     * A single thread grows the tree while every thread runs a batch of playouts from each selected node.
+     */
+    LEAF
+}
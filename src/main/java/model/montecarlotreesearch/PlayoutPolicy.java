@@ -0,0 +1,16 @@
+package model.montecarlotreesearch;
+
+/**
+ * This enum lists the ways the MCTS algorithm can choose moves during a simulated playout.
+ */
+public enum PlayoutPolicy {
+    /**
+     * Every move is chosen uniformly at random from the columns that are not full.
+     */
+    RANDOM,
+    /**
+     * A move that wins immediately is always played, otherwise a move that blocks the opponent's immediate win,
+     * and otherwise a random move.
+     */
+    TACTICAL
+}
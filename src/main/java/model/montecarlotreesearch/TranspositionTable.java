@@ -0,0 +1,59 @@
+package model.montecarlotreesearch;
+
+import model.environment.GameState;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class stores the MCTS tree nodes of a search by the Zobrist key of their game states, so a position
+ * reached through different orders of moves is represented by a single node.
+ */
+public class TranspositionTable {
+    private final Map<Long, MCTSTreeNode> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the node that contains the given game state.
+     *
+     * @param state the game state to find.
+     * @return the node containing the game state, or null if no node contains it.
+     */
+    public MCTSTreeNode get(GameState state) {
+        MCTSTreeNode node = nodes.get(state.getKey());
+        if (node != null && node.getGameState().equals(state)) {
+            return node;
+        }
+        return null;
+    }
+
+    /**
+     * Adds a node to the table unless a node containing the same game state has already been added.
+     *
+     * @param node the node to add.
+     * @return the node already in the table for the node's game state, otherwise the given node.
+     */
+    public MCTSTreeNode putIfAbsent(MCTSTreeNode node) {
+        MCTSTreeNode existing = nodes.putIfAbsent(node.getGameState().getKey(), node);
+        if (existing != null && existing.getGameState().equals(node.getGameState())) {
+            return existing;
+        }
+        // Either the node was added, or a different position with the same key is stored and the node stays unshared.
+        return node;
+    }
+
+    /**
+     * Returns the number of nodes in the table.
+     *
+     * @return the number of nodes.
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Removes every node from the table.
+     */
+    public void clear() {
+        nodes.clear();
+    }
+}
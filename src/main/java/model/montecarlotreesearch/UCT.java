@@ -1,14 +1,27 @@
 package model.montecarlotreesearch;
 
 import application.Constants;
+import model.environment.Board;
 
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.List;
 
 /**
  * This class executes the UCT algorithm.
+ * <p>
+ * Selection computes the exploration factor of the parent once and scans the successors in a primitive
+ * loop. Logarithms and inverse square roots of small visit counts are read from precomputed tables.
  */
 public class UCT {
+    private static final int TABLE_SIZE = 1 << 14;
+    private static final double[] LOGS = new double[TABLE_SIZE];
+    private static final double[] INVERSE_SQUARE_ROOTS = new double[TABLE_SIZE];
+
+    static {
+        for (int i = 1; i < TABLE_SIZE; i++) {
+            LOGS[i] = Math.log(i);
+            INVERSE_SQUARE_ROOTS[i] = 1 / Math.sqrt(i);
+        }
+    }
 
     /**
      * This class calculates the UCT value of the given node.
@@ -17,26 +30,179 @@ public class UCT {
      * @param node         the node to calculate the UCT value for.
      * @return Double.MaxValue if the node has not been visited, otherwise
      * the node's average state score + UCT-Exploration-Constant * Square root of
-     * (ln(parentVisits)/nodeVisits)
+     * (ln(parentVisits)/nodeVisits). Each virtual loss on the node counts as a visit that ended in a user win.
      */
     public static double uctValue(int parentVisits, MCTSTreeNode node) {
-        if (node.getVisitCount() == 0.0) {
+        int virtualLosses = node.getVirtualLosses();
+        int visits = node.getVisitCount() + virtualLosses;
+        if (visits == 0) {
+            return Double.MAX_VALUE;
+        }
+        double averageStateScore;
+        if (virtualLosses == 0) {
+            averageStateScore = node.getAverageStateScore();
+        } else {
+            averageStateScore = (node.getDraws() * Constants.DRAW_SCORE + node.getUserWins() * Constants.USER_WIN
+                    + node.getCompWins() * Constants.COMP_WIN + virtualLosses * Constants.USER_WIN) / visits;
+        }
+        return (averageStateScore + Constants.UCT_EXPLORATION_CONSTANT *
+                Math.sqrt(Math.log(Math.max(parentVisits, 1)) / visits));
+    }
+
+    /**
+     * This class calculates the UCT value of a node from its statistics.
+     *
+     * @param parentVisits the number of times the parent has been visited.
+     * @param visits       the number of times the node has been visited.
+     * @param compWins     the number of computer wins simulated through the node.
+     * @param userWins     the number of user wins simulated through the node.
+     * @param draws        the number of draws simulated through the node.
+     * @return Double.MaxValue if the node has not been visited, otherwise the same value as
+     * {@link #uctValue(int, MCTSTreeNode)} for a node with these statistics.
+     */
+    public static double uctValue(int parentVisits, int visits, int compWins, int userWins, int draws) {
+        return uctValue(getExplorationFactor(parentVisits), visits, compWins, userWins, draws);
+    }
+
+    /**
+     * Returns the part of the exploration term shared by every successor of a parent, which is the
+     * UCT-Exploration-Constant * Square root of ln(parentVisits). A parent that has not been visited yet
+     * is treated as visited once.
+     *
+     * @param parentVisits the number of times the parent has been visited.
+     * @return the exploration factor of the parent.
+     */
+    public static double getExplorationFactor(int parentVisits) {
+        return Constants.UCT_EXPLORATION_CONSTANT * Math.sqrt(log(Math.max(parentVisits, 1)));
+    }
+
+    /**
+     * This class calculates the UCT value of a node from its statistics and the exploration factor of its parent.
+     *
+     * @param explorationFactor the exploration factor of the parent, from {@link #getExplorationFactor(int)}.
+     * @param visits            the number of times the node has been visited.
+     * @param compWins          the number of computer wins simulated through the node.
+     * @param userWins          the number of user wins simulated through the node.
+     * @param draws             the number of draws simulated through the node.
+     * @return Double.MaxValue if the node has not been visited, otherwise the node's average state score
+     * + explorationFactor / Square root of nodeVisits.
+     */
+    public static double uctValue(double explorationFactor, int visits, int compWins, int userWins, int draws) {
+        if (visits == 0) {
             return Double.MAX_VALUE;
         }
-        return (node.getAverageStateScore() + Constants.UCT_EXPLORATION_CONSTANT *
-                Math.sqrt(Math.log(parentVisits) / node.getVisitCount()));
+        double averageStateScore = (draws * Constants.DRAW_SCORE + userWins * Constants.USER_WIN
+                + compWins * Constants.COMP_WIN) / visits;
+        return averageStateScore + explorationFactor * inverseSquareRoot(visits);
     }
 
     /**
      * Returns the MCTS tree node that is a successor of the given node with the max UCT value.
+     * Each virtual loss on a successor counts as a visit that ended in a user win, and successors proven
+     * to lose for the player choosing between them are skipped.
      *
      * @param node the node to find the best successor from.
      * @return the MCTS tree node that maximizes the UCT value.
      */
     public static MCTSTreeNode findBestNodeWithUCT(MCTSTreeNode node) {
-        int parentVisit = node.getVisitCount();
-        return Collections.max(
-                node.getSuccessorStates(),
-                Comparator.comparing(c -> uctValue(parentVisit, c)));
+        double explorationFactor = getExplorationFactor(node.getVisitCount());
+        double provenLoss = getProvenLoss(node);
+        List<MCTSTreeNode> successors = node.getSuccessorStates();
+        MCTSTreeNode bestNode = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < successors.size(); i++) {
+            MCTSTreeNode successor = successors.get(i);
+            if (successor.getProvenScore() == provenLoss) {
+                continue;
+            }
+            int virtualLosses = successor.getVirtualLosses();
+            double value = uctValue(explorationFactor, successor.getVisitCount() + virtualLosses,
+                    successor.getCompWins(), successor.getUserWins() + virtualLosses, successor.getDraws());
+            if (bestNode == null || value > bestValue) {
+                bestNode = successor;
+                bestValue = value;
+            }
+        }
+        // Every successor is a proven loss, which another thread is about to record for the node.
+        return bestNode == null ? successors.get(0) : bestNode;
+    }
+
+    /**
+     * Returns the MCTS tree node that is a successor of the given node with the max UCT value, where each
+     * successor's average score is blended with the all-moves-as-first score of its column at the given node.
+     * The all-moves-as-first score is weighted by Square root of (k / (3 * nodeVisits + k)), where k is the
+     * RAVE equivalence constant, so it guides the search while a successor has few visits and fades as the
+     * successor's own score becomes reliable. Successors proven to lose for the player choosing between
+     * them are skipped.
+     *
+     * @param node the node to find the best successor from.
+     * @return the MCTS tree node that maximizes the blended UCT value.
+     */
+    public static MCTSTreeNode findBestNodeWithRAVE(MCTSTreeNode node) {
+        double explorationFactor = getExplorationFactor(node.getVisitCount());
+        double provenLoss = getProvenLoss(node);
+        Board board = node.getGameState().getBoard();
+        List<MCTSTreeNode> successors = node.getSuccessorStates();
+        MCTSTreeNode bestNode = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < successors.size(); i++) {
+            MCTSTreeNode successor = successors.get(i);
+            if (successor.getProvenScore() == provenLoss) {
+                continue;
+            }
+            int virtualLosses = successor.getVirtualLosses();
+            int visits = successor.getVisitCount() + virtualLosses;
+            double value;
+            if (visits == 0) {
+                value = Double.MAX_VALUE;
+            } else {
+                double score = (successor.getDraws() * Constants.DRAW_SCORE
+                        + (successor.getUserWins() + virtualLosses) * Constants.USER_WIN
+                        + successor.getCompWins() * Constants.COMP_WIN) / visits;
+                int column = board.findMoveColumn(successor.getGameState().getBoard());
+                if (node.getAmafVisitCount(column) > 0) {
+                    double beta = Math.sqrt(Constants.RAVE_EQUIVALENCE / (3.0 * visits + Constants.RAVE_EQUIVALENCE));
+                    score = (1 - beta) * score + beta * node.getAmafAverageScore(column);
+                }
+                value = score + explorationFactor * inverseSquareRoot(visits);
+            }
+            if (bestNode == null || value > bestValue) {
+                bestNode = successor;
+                bestValue = value;
+            }
+        }
+        // Every successor is a proven loss, which another thread is about to record for the node.
+        return bestNode == null ? successors.get(0) : bestNode;
+    }
+
+    /**
+     * Returns the proven result of a successor that loses for the player choosing between the successors of
+     * the given node, which is a win for the player who moved into the node.
+     *
+     * @param node the node whose successors are being chosen between.
+     * @return Constants.USER_WIN if the user moved into the node, otherwise Constants.COMP_WIN.
+     */
+    private static double getProvenLoss(MCTSTreeNode node) {
+        return node.getGameState().getPlayerNum() == Constants.USER_MOVE ? Constants.USER_WIN : Constants.COMP_WIN;
+    }
+
+    /**
+     * Returns the natural logarithm of a positive number, using the table for small numbers.
+     *
+     * @param n the number, at least 1.
+     * @return the natural logarithm of the number.
+     */
+    private static double log(int n) {
+        return n < TABLE_SIZE ? LOGS[n] : Math.log(n);
+    }
+
+    /**
+     * Returns one over the square root of a positive number, using the table for small numbers.
+     *
+     * @param n the number, at least 1.
+     * @return one over the square root of the number.
+     */
+    private static double inverseSquareRoot(int n) {
+        return n < TABLE_SIZE ? INVERSE_SQUARE_ROOTS[n] : 1 / Math.sqrt(n);
     }
 }
@@ -0,0 +1,297 @@
+package model.solver;
+
+import application.Constants;
+import model.environment.Board;
+import model.environment.GameState;
+
+import static application.Constants.NUM_COLS;
+import static application.Constants.NUM_ROWS;
+
+/**
+ * This class solves Connect Four positions exactly with a negamax search using alpha-beta pruning.
+ * <p>
+ * Scores are from the view of the player to move: 0 is a draw, a positive score is a win and a negative
+ * score is a loss. A win with the player's nth disc scores {@code (NUM_COLS * NUM_ROWS) / 2 + 1 - n}, so
+ * faster wins score higher. The score is found by iterative deepening over the score rather than the depth:
+ * each pass is a null-window search asking whether the score is above a value, starting with the values
+ * closest to 0, which only need the shortest lines to be read out. The passes share a transposition table,
+ * moves are tried from the center column outwards, and the search only plays moves that do not hand the
+ * opponent an immediate win.
+ * <p>
+ * A solver is not safe to use from several threads at once. It keeps its transposition table between
+ * calls, so solving positions from the same game gets faster as the table fills.
+ */
+public class NegamaxSolver {
+    private static final int CAPACITY = NUM_COLS * NUM_ROWS;
+    private static final int DEFAULT_TABLE_BITS = 22;
+    private static final int[] COLUMN_ORDER = new int[NUM_COLS];
+
+    static {
+        // The center column first, then alternating to the left and right of it.
+        for (int i = 0; i < NUM_COLS; i++) {
+            COLUMN_ORDER[i] = NUM_COLS / 2 + (1 - 2 * (i % 2)) * (i + 1) / 2;
+        }
+    }
+
+    private final ScoreTable table;
+    private Board board;
+    private long nodeCount;
+    private long searchNanos;
+    private int lastScore;
+
+    /**
+     * Constructor, creates a solver with the default transposition table of 2^22 entries.
+     */
+    public NegamaxSolver() {
+        this(DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Constructor, creates a solver with a transposition table of the given size.
+     *
+     * @param tableBits the base 2 logarithm of the number of entries in the transposition table.
+     */
+    public NegamaxSolver(int tableBits) {
+        table = new ScoreTable(tableBits);
+    }
+
+    /**
+     * Returns the exact score of a game state for the player to move.
+     *
+     * @param state the game state to solve, where the player to move is the opponent of its player number.
+     * @return the score of the position, positive if the player to move wins.
+     */
+    public int solve(GameState state) {
+        board = new Board(state.getBoard());
+        nodeCount = 0;
+        long start = System.nanoTime();
+        try {
+            lastScore = solveBoard(state.getOpponent());
+            return lastScore;
+        } finally {
+            searchNanos = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Finds the best move of a game state for the player to move. Ties are broken towards the center.
+     *
+     * @param state the game state to find a move for, where the player to move is the opponent of its
+     *              player number.
+     * @return the column of the best move, or -1 if the game is over.
+     */
+    public int findBestMove(GameState state) {
+        board = new Board(state.getBoard());
+        nodeCount = 0;
+        long start = System.nanoTime();
+        try {
+            int player = state.getOpponent();
+            if (board.checkStatus() != Constants.IN_PROGRESS) {
+                lastScore = solveBoard(player);
+                return -1;
+            }
+            int wins = board.getWinningActionsMask(player);
+            if (wins != 0) {
+                lastScore = (CAPACITY + 1 - board.getTotalMoves()) / 2;
+                return firstInOrder(wins);
+            }
+            int actions = board.getPossibleActionsMask();
+            int bestColumn = -1;
+            int bestScore = Integer.MIN_VALUE;
+            for (int column : COLUMN_ORDER) {
+                if ((actions & (1 << column)) == 0) {
+                    continue;
+                }
+                board.performMove(player, column, board.getNextEmptyRow(column));
+                int score = -solveBoard(opponentOf(player));
+                board.undoMove(column);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestColumn = column;
+                }
+            }
+            lastScore = bestScore;
+            return bestColumn;
+        } finally {
+            searchNanos = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Returns the exact score of the position given to the last call to solve or find a move.
+     *
+     * @return the score of the last position searched, for the player to move.
+     */
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    /**
+     * Returns the number of positions searched by the last call to solve or find a move.
+     *
+     * @return the number of positions searched.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the time taken by the last call to solve or find a move.
+     *
+     * @return the time taken in nanoseconds.
+     */
+    public long getSearchNanos() {
+        return searchNanos;
+    }
+
+    /**
+     * Returns the number of positions searched per second by the last call to solve or find a move.
+     *
+     * @return the positions searched per second, or 0 if nothing has been searched.
+     */
+    public double getPositionsPerSecond() {
+        return searchNanos == 0 ? 0 : nodeCount * 1e9 / searchNanos;
+    }
+
+    /**
+     * Removes every position from the transposition table.
+     */
+    public void clearTable() {
+        table.clear();
+    }
+
+    /**
+     * Returns the exact score of the solver's board by narrowing the range of possible scores with
+     * null-window searches until a single score remains.
+     *
+     * @param player the player to move.
+     * @return the score of the position for the player to move.
+     */
+    private int solveBoard(int player) {
+        int moves = board.getTotalMoves();
+        double status = board.checkStatus();
+        if (status == Constants.DRAW_SCORE) {
+            return 0;
+        } else if (status != Constants.IN_PROGRESS) {
+            // The previous player has already won with their last disc.
+            return -(CAPACITY + 2 - moves) / 2;
+        }
+        int min = -(CAPACITY - moves) / 2;
+        int max = (CAPACITY + 1 - moves) / 2;
+        while (min < max) {
+            int middle = min + (max - min) / 2;
+            // Probe close to 0 first, since short wins and losses are cheaper to prove than long ones.
+            if (middle <= 0 && min / 2 < middle) {
+                middle = min / 2;
+            } else if (middle >= 0 && max / 2 > middle) {
+                middle = max / 2;
+            }
+            int score = negamax(player, middle, middle + 1);
+            if (score <= middle) {
+                max = score;
+            } else {
+                min = score;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Searches the solver's board with alpha-beta pruning. The game must not be over.
+     *
+     * @param player the player to move.
+     * @param alpha  the score the player to move is already guaranteed.
+     * @param beta   the score the opponent is already guaranteed to hold the player to move under.
+     * @return the exact score if it is between alpha and beta, otherwise a bound on the score beyond the
+     * window, at most alpha or at least beta.
+     */
+    private int negamax(int player, int alpha, int beta) {
+        nodeCount++;
+        int moves = board.getTotalMoves();
+        if (moves == CAPACITY) {
+            return 0;
+        }
+        if (board.getWinningActionsMask(player) != 0) {
+            return (CAPACITY + 1 - moves) / 2;
+        }
+        int opponent = opponentOf(player);
+        int actions = board.getNonLosingActionsMask(player);
+        if (actions == 0) {
+            // Every move lets the opponent win with their next disc.
+            return -(CAPACITY - moves) / 2;
+        }
+
+        // The player cannot win with this disc, and the opponent cannot win before their next disc.
+        int min = -(CAPACITY - moves) / 2;
+        int max = (CAPACITY - 1 - moves) / 2;
+        long key = (board.getPositionCode() << 1) | player;
+        int slot = table.find(key);
+        if (slot >= 0) {
+            int stored = table.getScore(slot);
+            int bound = table.getBound(slot);
+            if (bound == ScoreTable.EXACT) {
+                return stored;
+            } else if (bound == ScoreTable.LOWER_BOUND) {
+                min = Math.max(min, stored);
+            } else {
+                max = Math.min(max, stored);
+            }
+        }
+        if (alpha < min) {
+            alpha = min;
+            if (alpha >= beta) {
+                return alpha;
+            }
+        }
+        if (beta > max) {
+            beta = max;
+            if (alpha >= beta) {
+                return beta;
+            }
+        }
+
+        int windowAlpha = alpha;
+        for (int column : COLUMN_ORDER) {
+            if ((actions & (1 << column)) == 0) {
+                continue;
+            }
+            board.performMove(player, column, board.getNextEmptyRow(column));
+            int score = -negamax(opponent, -beta, -alpha);
+            board.undoMove(column);
+            if (score >= beta) {
+                table.store(key, score, ScoreTable.LOWER_BOUND);
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        table.store(key, alpha, alpha > windowAlpha ? ScoreTable.EXACT : ScoreTable.UPPER_BOUND);
+        return alpha;
+    }
+
+    /**
+     * Returns the first column in the search order that is set in a bitmask of columns.
+     *
+     * @param actions the bitmask of columns.
+     * @return the first column of the bitmask in the search order, or -1 if the bitmask is empty.
+     */
+    private static int firstInOrder(int actions) {
+        for (int column : COLUMN_ORDER) {
+            if ((actions & (1 << column)) != 0) {
+                return column;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the other player.
+     *
+     * @param player the player.
+     * @return the opponent of the player.
+     */
+    private static int opponentOf(int player) {
+        return player == Constants.USER_MOVE ? Constants.COMP_MOVE : Constants.USER_MOVE;
+    }
+}
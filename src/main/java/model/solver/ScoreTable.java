@@ -0,0 +1,120 @@
+package model.solver;
+
+import java.util.Arrays;
+
+/**
+ * This class is a fixed-size transposition table for the solver, storing a bound on the score of each
+ * position it has searched. Entries are kept in parallel arrays indexed by a hash of the position's key,
+ * and a new entry replaces whatever was stored in its slot, so the table never grows.
+ */
+public class ScoreTable {
+    /**
+     * The stored score is the exact score of the position.
+     */
+    public static final int EXACT = 0;
+    /**
+     * The exact score of the position is at least the stored score.
+     */
+    public static final int LOWER_BOUND = 1;
+    /**
+     * The exact score of the position is at most the stored score.
+     */
+    public static final int UPPER_BOUND = 2;
+
+    private static final long EMPTY_KEY = -1L;
+
+    private final long[] keys;
+    private final byte[] scores;
+    private final byte[] bounds;
+    private final int indexMask;
+
+    /**
+     * Constructor, creates an empty table.
+     *
+     * @param sizeBits the base 2 logarithm of the number of entries.
+     */
+    public ScoreTable(int sizeBits) {
+        if (sizeBits < 1 || sizeBits > 30) {
+            throw new IllegalArgumentException("The table size must be between 2^1 and 2^30 entries.");
+        }
+        int size = 1 << sizeBits;
+        keys = new long[size];
+        scores = new byte[size];
+        bounds = new byte[size];
+        indexMask = size - 1;
+        clear();
+    }
+
+    /**
+     * Returns the number of entries the table can hold.
+     *
+     * @return the number of entries.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Finds the entry of a position.
+     *
+     * @param key the key of the position, which must not be negative.
+     * @return the slot of the entry, or -1 if the position is not stored.
+     */
+    public int find(long key) {
+        int slot = index(key);
+        return keys[slot] == key ? slot : -1;
+    }
+
+    /**
+     * Returns the score stored in a slot.
+     *
+     * @param slot the slot of the entry, from {@link #find(long)}.
+     * @return the stored score.
+     */
+    public int getScore(int slot) {
+        return scores[slot];
+    }
+
+    /**
+     * Returns the kind of bound stored in a slot.
+     *
+     * @param slot the slot of the entry, from {@link #find(long)}.
+     * @return {@link #EXACT}, {@link #LOWER_BOUND}, or {@link #UPPER_BOUND}.
+     */
+    public int getBound(int slot) {
+        return bounds[slot];
+    }
+
+    /**
+     * Stores a bound on the score of a position, replacing the entry in its slot.
+     *
+     * @param key   the key of the position, which must not be negative.
+     * @param score the score to store.
+     * @param bound {@link #EXACT}, {@link #LOWER_BOUND}, or {@link #UPPER_BOUND}.
+     */
+    public void store(long key, int score, int bound) {
+        int slot = index(key);
+        keys[slot] = key;
+        scores[slot] = (byte) score;
+        bounds[slot] = (byte) bound;
+    }
+
+    /**
+     * Removes every entry from the table.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY_KEY);
+    }
+
+    /**
+     * Returns the slot of a key, mixing its bits so positions that differ only in a few discs are spread
+     * over the table.
+     *
+     * @param key the key of the position.
+     * @return the slot of the key.
+     */
+    private int index(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & indexMask;
+    }
+}
@@ -1,4 +1,4 @@
-package model.environment;
+package view;
 
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
@@ -6,7 +6,7 @@ import javafx.scene.shape.Circle;
 import static application.Constants.TILE_SIZE;
 
 /**
- * This class represents a token that can be placed into the board.
+ * This class represents a token that is displayed on the board once a move has been made.
  */
 public class Disc extends Circle {
 
@@ -17,7 +17,7 @@ public class Disc extends Circle {
      *
      * @param userMove which player placed the disc. True for user, false for computer.
      */
-    Disc(boolean userMove) {
+    public Disc(boolean userMove) {
         super(TILE_SIZE / 2, userMove ? Color.RED : Color.YELLOW);
         this.userMove = userMove;
 
@@ -2,7 +2,6 @@ package view;
 
 import application.Constants;
 import application.GameBoardController;
-import model.environment.Disc;
 import javafx.scene.Parent;
 import javafx.scene.effect.Light;
 import javafx.scene.effect.Lighting;
@@ -92,7 +92,9 @@ public class MCTSInfoBox {
         VBox actionLayout = generateSuccessorInformationBox(root);
 
         // Display number of visits through root node and the action to take.
-        Label iterationsLabel = new Label(String.format("MCTS Iterations Conducted This Turn: %d    Simulations per Iteration: %d", MCTSAlgorithm.getIterations(), Constants.SIMULATIONS));
+        Label iterationsLabel = new Label(String.format("MCTS Iterations Conducted This Turn: %d    Simulations per Iteration: %d    Threads: %d",
+                MCTSAlgorithm.getLastIterationCount(), MCTSAlgorithm.getSimulationsPerIteration(),
+                MCTSAlgorithm.getThreadCount()));
         Label visitLabel = new Label(String.format("Cumulative Visits Through Current State: %d", root.getVisitCount()));
         Label action = new Label(String.format("Computer will place disc in column %d", col + 1));
         actionLayout.getChildren().addAll(iterationsLabel, visitLabel, new Separator(), action);
@@ -137,9 +139,11 @@ public class MCTSInfoBox {
         // Create a vertical box to contain the information for each possible action.
         VBox actionLayout = generateSuccessorInformationBox(root);
 
-        // Display number of visits through root node.
+        // Display number of visits through root node and how many were kept from the previous turn.
         Label visitLabel = new Label(String.format("Cumulative Visits Through Current State: %d", root.getVisitCount()));
-        actionLayout.getChildren().addAll(visitLabel, new Separator());
+        Label reusedLabel = new Label(String.format("Visits Reused From Previous Turn: %d",
+                MCTSAlgorithm.getLastReusedVisitCount()));
+        actionLayout.getChildren().addAll(visitLabel, reusedLabel, new Separator());
 
         // Set the button details
         Button closeButton = new Button("Execute MCTS");
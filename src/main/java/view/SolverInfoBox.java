@@ -0,0 +1,83 @@
+package view;
+
+import application.Constants;
+import application.GameBoardController;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.Separator;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import model.solver.NegamaxSolver;
+
+/**
+ * This class displays a window providing the solver's results before the computer completes its turn.
+ */
+public class SolverInfoBox {
+
+    /**
+     * Creates a window that displays the score of the position and how fast the solver searched it.
+     *
+     * @param col    the column where the computer will make its move.
+     * @param score  the exact score of the position for the computer.
+     * @param solver the solver that found the move, or null if the move was taken from the opening book.
+     */
+    public static void postSolverDisplay(int col, int score, NegamaxSolver solver) {
+        Stage window = new Stage();
+
+        // Set the window details
+        window.initModality(Modality.APPLICATION_MODAL);
+        window.setTitle("Solver Results");
+
+        // Set a title label
+        Label label = new Label("Solver Results");
+        label.setContentDisplay(ContentDisplay.CENTER);
+        label.setFont(Font.font(20));
+        label.setPadding(new Insets(5, 5, 0, 5));
+
+        VBox resultLayout = new VBox(5);
+        resultLayout.setPadding(new Insets(5, 20, 5, 20));
+        resultLayout.setAlignment(Pos.CENTER_LEFT);
+
+        // Describe the score, where a win with the nth disc from the end scores n.
+        String outcome = score > 0 ? "The computer wins" : score < 0 ? "The computer loses" : "The game is a draw";
+        Label scoreLabel = new Label(String.format("%s with best play    Score: %d", outcome, score));
+        resultLayout.getChildren().addAll(scoreLabel, new Separator());
+
+        // Display the search statistics, which are used to benchmark the solver.
+        Label searchLabel;
+        if (solver == null) {
+            searchLabel = new Label("The move was taken from the opening book without searching");
+        } else {
+            searchLabel = new Label(String.format("Positions Searched: %d    Positions per Second: %.0f    Time: %d ms",
+                    solver.getNodeCount(), solver.getPositionsPerSecond(), solver.getSearchNanos() / 1000000));
+        }
+        Label action = new Label(String.format("Computer will place disc in column %d", col + 1));
+        resultLayout.getChildren().addAll(searchLabel, new Separator(), action);
+
+        // Set the button details
+        Button closeButton = new Button("Okay");
+        closeButton.setOnAction(event -> {
+            window.close();
+            GameBoardController.placeDisc(Constants.COMP_MOVE, col);
+        });
+        closeButton.setMinWidth(50);
+
+        // Use a VBox to store the label and button
+        VBox layout = new VBox(10);
+        layout.getChildren().addAll(label, resultLayout, closeButton);
+        layout.setAlignment(Pos.CENTER);
+        layout.setPadding(new Insets(5, 5, 5, 5));
+
+        // Create a scene and set the window
+        Scene scene = new Scene(layout);
+        window.setResizable(false);
+        window.setScene(scene);
+        window.show();
+    }
+}
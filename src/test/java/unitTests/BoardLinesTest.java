@@ -0,0 +1,37 @@
+package unitTests;
+
+import application.Constants;
+import model.environment.BoardLines;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class tests the BoardLines class.
+ */
+public class BoardLinesTest {
+
+    /**
+     * Tests if the number of lines matches the number of horizontal, vertical, and diagonal lines of four.
+     */
+    @Test
+    public void testGetLineCount() {
+        int horizontal = Constants.NUM_ROWS * (Constants.NUM_COLS - 3);
+        int vertical = Constants.NUM_COLS * (Constants.NUM_ROWS - 3);
+        int diagonal = 2 * (Constants.NUM_ROWS - 3) * (Constants.NUM_COLS - 3);
+        Assert.assertEquals("The number of lines is not the expected value.",
+                horizontal + vertical + diagonal, BoardLines.getLineCount());
+    }
+
+    /**
+     * Tests if every line has four distinct positions and no line is repeated.
+     */
+    @Test
+    public void testLinesAreDistinct() {
+        for (int i = 0; i < BoardLines.getLineCount(); i++) {
+            Assert.assertEquals("A line does not contain four positions.", 4, Long.bitCount(BoardLines.getLine(i)));
+            for (int j = i + 1; j < BoardLines.getLineCount(); j++) {
+                Assert.assertNotEquals("A line was repeated.", BoardLines.getLine(i), BoardLines.getLine(j));
+            }
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package unitTests;
+
+import application.Constants;
+import model.environment.Board;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class tests the Board class.
+ */
+public class BoardTest {
+
+    private Board board;
+
+    /**
+     * Places a disc for the given player in the next empty row of the given column.
+     *
+     * @param player the player who places the disc.
+     * @param column the column to place the disc into.
+     */
+    private void drop(int player, int column) {
+        board.performMove(player, column, board.getNextEmptyRow(column));
+    }
+
+    /**
+     * Tests if an empty board is still in progress.
+     */
+    @Test
+    public void testCheckStatusEmptyBoard() {
+        board = new Board();
+        Assert.assertEquals("An empty board should be in progress.",
+                Constants.IN_PROGRESS, board.checkStatus(), 0);
+    }
+
+    /**
+     * Tests if four user discs in the bottom row are detected as a user win.
+     */
+    @Test
+    public void testCheckStatusHorizontalWin() {
+        board = new Board();
+        for (int column = 1; column < 4; column++) {
+            drop(Constants.USER_MOVE, column);
+            drop(Constants.COMP_MOVE, column);
+        }
+        Assert.assertEquals("Three in a row should still be in progress.",
+                Constants.IN_PROGRESS, board.checkStatus(), 0);
+        drop(Constants.USER_MOVE, 4);
+        Assert.assertEquals("Four horizontal user discs should be a user win.",
+                Constants.USER_WIN, board.checkStatus(), 0);
+    }
+
+    /**
+     * Tests if four computer discs stacked in a column are detected as a computer win.
+     */
+    @Test
+    public void testCheckStatusVerticalWin() {
+        board = new Board();
+        drop(Constants.USER_MOVE, 6);
+        drop(Constants.USER_MOVE, 6);
+        for (int i = 0; i < 4; i++) {
+            drop(Constants.COMP_MOVE, 6);
+        }
+        Assert.assertEquals("Four vertical computer discs should be a computer win.",
+                Constants.COMP_WIN, board.checkStatus(), 0);
+    }
+
+    /**
+     * Tests if a vertical line that spans two columns is not detected as a win.
+     */
+    @Test
+    public void testCheckStatusNoWrapBetweenColumns() {
+        board = new Board();
+        for (int i = 0; i < Constants.NUM_ROWS - 3; i++) {
+            drop(Constants.COMP_MOVE, 0);
+        }
+        for (int i = 0; i < 3; i++) {
+            drop(Constants.USER_MOVE, 0);
+        }
+        drop(Constants.USER_MOVE, 1);
+        Assert.assertEquals("Discs at the top of one column and bottom of the next should not be a win.",
+                Constants.IN_PROGRESS, board.checkStatus(), 0);
+    }
+
+    /**
+     * Tests if a disc placed in the gap in the middle of a line completes the line.
+     */
+    @Test
+    public void testCheckStatusWinInMiddleOfLine() {
+        board = new Board();
+        drop(Constants.COMP_MOVE, 0);
+        drop(Constants.COMP_MOVE, 1);
+        drop(Constants.COMP_MOVE, 3);
+        drop(Constants.USER_MOVE, 6);
+        Assert.assertEquals("A line with a gap should still be in progress.",
+                Constants.IN_PROGRESS, board.checkStatus(), 0);
+        drop(Constants.COMP_MOVE, 2);
+        Assert.assertEquals("Filling the gap in a line should be a computer win.",
+                Constants.COMP_WIN, board.checkStatus(), 0);
+    }
+
+    /**
+     * Tests if upward and downward diagonal lines are detected as wins.
+     */
+    @Test
+    public void testCheckStatusDiagonalWins() {
+        board = new Board();
+        for (int column = 0; column < 4; column++) {
+            for (int i = 0; i < column; i++) {
+                drop(Constants.COMP_MOVE, column);
+            }
+            drop(Constants.USER_MOVE, column);
+        }
+        Assert.assertEquals("An upward diagonal of user discs should be a user win.",
+                Constants.USER_WIN, board.checkStatus(), 0);
+
+        board = new Board();
+        for (int column = 3; column < 7; column++) {
+            for (int i = 0; i < 6 - column; i++) {
+                drop(Constants.USER_MOVE, column);
+            }
+            drop(Constants.COMP_MOVE, column);
+        }
+        Assert.assertEquals("A downward diagonal of computer discs should be a computer win.",
+                Constants.COMP_WIN, board.checkStatus(), 0);
+    }
+
+    /**
+     * Tests if a full board without a line of four is detected as a draw.
+     */
+    @Test
+    public void testCheckStatusDraw() {
+        board = new Board();
+        // Alternate pairs of rows between the players so no line of four can be formed.
+        for (int column = 0; column < Constants.NUM_COLS; column++) {
+            for (int height = 0; height < Constants.NUM_ROWS; height++) {
+                boolean user = ((height / 2) + column) % 2 == 0;
+                drop(user ? Constants.USER_MOVE : Constants.COMP_MOVE, column);
+            }
+        }
+        Assert.assertEquals("A full board without a winner should be a draw.",
+                Constants.DRAW_SCORE, board.checkStatus(), 0);
+        Assert.assertTrue("A full board should have no possible actions.", board.findPossibleActions().isEmpty());
+    }
+
+    /**
+     * Tests if the next empty row moves up the column as discs are placed and is -1 once the column is full.
+     */
+    @Test
+    public void testGetNextEmptyRow() {
+        board = new Board();
+        for (int row = Constants.NUM_ROWS - 1; row >= 0; row--) {
+            Assert.assertEquals("The next empty row is not the expected row.", row, board.getNextEmptyRow(2));
+            drop(Constants.USER_MOVE, 2);
+        }
+        Assert.assertEquals("A full column should not have an empty row.", -1, board.getNextEmptyRow(2));
+        Assert.assertFalse("A full column should not be a possible action.", board.findPossibleActions().contains(2));
+    }
+
+    /**
+     * Tests if a copied board is equal to the original and is not changed by moves on the original.
+     */
+    @Test
+    public void testCopyAndEquals() {
+        board = new Board();
+        drop(Constants.USER_MOVE, 3);
+        Board copy = new Board(board);
+        Assert.assertEquals("A copied board should equal the original.", board, copy);
+
+        drop(Constants.COMP_MOVE, 3);
+        Assert.assertNotEquals("A copied board should not change when the original changes.", board, copy);
+        Assert.assertEquals("The copied board should keep its own move count.", 1, copy.getTotalMoves());
+
+        Board userBoard = new Board();
+        userBoard.performMove(Constants.USER_MOVE, 0, Constants.NUM_ROWS - 1);
+        Board compBoard = new Board();
+        compBoard.performMove(Constants.COMP_MOVE, 0, Constants.NUM_ROWS - 1);
+        Assert.assertNotEquals("Boards with different players in the same position should not be equal.",
+                userBoard, compBoard);
+    }
+
+    /**
+     * Tests if boards reached through different move orders have the same key and hash code.
+     */
+    @Test
+    public void testKeyIndependentOfMoveOrder() {
+        board = new Board();
+        drop(Constants.USER_MOVE, 3);
+        drop(Constants.COMP_MOVE, 2);
+        drop(Constants.USER_MOVE, 4);
+        Board first = board;
+
+        board = new Board();
+        drop(Constants.USER_MOVE, 4);
+        drop(Constants.COMP_MOVE, 2);
+        drop(Constants.USER_MOVE, 3);
+
+        Assert.assertEquals("Transposed boards should be equal.", first, board);
+        Assert.assertEquals("Transposed boards should have the same key.", first.getKey(), board.getKey());
+        Assert.assertEquals("Transposed boards should have the same hash code.", first.hashCode(), board.hashCode());
+
+        Board swapped = new Board();
+        swapped.performMove(Constants.COMP_MOVE, 3, Constants.NUM_ROWS - 1);
+        swapped.performMove(Constants.USER_MOVE, 2, Constants.NUM_ROWS - 1);
+        swapped.performMove(Constants.COMP_MOVE, 4, Constants.NUM_ROWS - 1);
+        Assert.assertNotEquals("Boards with swapped players should have different keys.",
+                first.getKey(), swapped.getKey());
+        Assert.assertNotEquals("An empty board should have a different key.", new Board().getKey(), first.getKey());
+    }
+
+    /**
+     * Tests if the possible actions mask, count, and nth action agree with the list of possible actions.
+     */
+    @Test
+    public void testPossibleActionsMask() {
+        board = new Board();
+        Assert.assertEquals("All columns of an empty board should be possible actions.",
+                (1 << Constants.NUM_COLS) - 1, board.getPossibleActionsMask());
+        for (int i = 0; i < Constants.NUM_ROWS; i++) {
+            drop(Constants.USER_MOVE, 1);
+            drop(Constants.COMP_MOVE, 4);
+        }
+        int actions = board.getPossibleActionsMask();
+        Assert.assertEquals("Full columns should not be in the possible actions mask.",
+                (1 << Constants.NUM_COLS) - 1 - (1 << 1) - (1 << 4), actions);
+        Assert.assertEquals("The count of possible actions is not the expected value.",
+                Constants.NUM_COLS - 2, board.countPossibleActions());
+        for (int n = 0; n < board.countPossibleActions(); n++) {
+            Assert.assertEquals("The nth action does not match the list of possible actions.",
+                    (int) board.findPossibleActions().get(n), Board.getNthAction(actions, n));
+        }
+    }
+
+    /**
+     * Tests if undoing moves restores the board, key, and move count of the earlier position.
+     */
+    @Test
+    public void testUndoMove() {
+        board = new Board();
+        drop(Constants.USER_MOVE, 3);
+        drop(Constants.COMP_MOVE, 4);
+        Board before = new Board(board);
+
+        drop(Constants.USER_MOVE, 4);
+        drop(Constants.COMP_MOVE, 0);
+        board.undoMove(0);
+        board.undoMove(4);
+
+        Assert.assertEquals("Undoing moves should restore the earlier board.", before, board);
+        Assert.assertEquals("Undoing moves should restore the earlier key.", before.getKey(), board.getKey());
+        Assert.assertEquals("Undoing moves should restore the move count.", 2, board.getTotalMoves());
+        Assert.assertEquals("The next empty row should move back down the column.",
+                Constants.NUM_ROWS - 2, board.getNextEmptyRow(4));
+    }
+
+    /**
+     * Tests if mirroring a board reflects its discs and keys.
+     */
+    @Test
+    public void testMirror() {
+        board = new Board();
+        drop(Constants.USER_MOVE, 0);
+        drop(Constants.COMP_MOVE, 1);
+        drop(Constants.USER_MOVE, 1);
+        Board original = new Board(board);
+
+        board = new Board();
+        drop(Constants.USER_MOVE, Constants.NUM_COLS - 1);
+        drop(Constants.COMP_MOVE, Constants.NUM_COLS - 2);
+        drop(Constants.USER_MOVE, Constants.NUM_COLS - 2);
+
+        Board mirrored = original.getMirroredBoard();
+        Assert.assertEquals("The mirrored board does not match the reflected moves.", board, mirrored);
+        Assert.assertEquals("The mirrored board should have the key of the reflected moves.",
+                board.getKey(), mirrored.getKey());
+        Assert.assertFalse("An asymmetric board should not be symmetric.", original.isSymmetric());
+
+        mirrored.mirror();
+        Assert.assertEquals("Mirroring twice should restore the original board.", original, mirrored);
+        Assert.assertEquals("Mirroring twice should restore the original key.", original.getKey(), mirrored.getKey());
+    }
+
+    /**
+     * Tests if boards with discs only in the middle column are symmetric.
+     */
+    @Test
+    public void testIsSymmetric() {
+        board = new Board();
+        Assert.assertTrue("An empty board should be symmetric.", board.isSymmetric());
+        drop(Constants.USER_MOVE, Constants.NUM_COLS / 2);
+        drop(Constants.COMP_MOVE, Constants.NUM_COLS / 2);
+        Assert.assertTrue("A board with discs in the middle column should be symmetric.", board.isSymmetric());
+        drop(Constants.USER_MOVE, 0);
+        Assert.assertFalse("A board with a disc in the first column should not be symmetric.", board.isSymmetric());
+        drop(Constants.COMP_MOVE, Constants.NUM_COLS - 1);
+        Assert.assertFalse("A board with different players in mirrored columns should not be symmetric.",
+                board.isSymmetric());
+    }
+
+    /**
+     * Tests if the winning actions mask finds vertical, horizontal, and diagonal wins only in columns where
+     * the winning position is the next empty row.
+     */
+    @Test
+    public void testGetWinningActionsMask() {
+        board = new Board();
+        Assert.assertEquals("An empty board should have no winning actions.",
+                0, board.getWinningActionsMask(Constants.USER_MOVE));
+
+        // Three user discs in column 0 and two gaps in the bottom row between user discs in columns 2, 3, and 5.
+        for (int i = 0; i < 3; i++) {
+            drop(Constants.USER_MOVE, 0);
+        }
+        drop(Constants.COMP_MOVE, 2);
+        drop(Constants.COMP_MOVE, 3);
+        drop(Constants.COMP_MOVE, 5);
+        Assert.assertEquals("The user should win vertically in column 0.",
+                1, board.getWinningActionsMask(Constants.USER_MOVE));
+        Assert.assertEquals("The computer should win by filling the gap in column 4.",
+                1 << 4, board.getWinningActionsMask(Constants.COMP_MOVE));
+
+        // An upward diagonal from column 1 is missing its top disc in column 4, which is not yet playable.
+        board = new Board();
+        drop(Constants.COMP_MOVE, 1);
+        drop(Constants.USER_MOVE, 2);
+        drop(Constants.COMP_MOVE, 2);
+        drop(Constants.USER_MOVE, 3);
+        drop(Constants.USER_MOVE, 3);
+        drop(Constants.COMP_MOVE, 3);
+        drop(Constants.USER_MOVE, 4);
+        drop(Constants.USER_MOVE, 4);
+        Assert.assertEquals("A diagonal win above the next empty row should not be a winning action.",
+                0, board.getWinningActionsMask(Constants.COMP_MOVE));
+        drop(Constants.USER_MOVE, 4);
+        Assert.assertEquals("The computer should win on the diagonal once the position is playable.",
+                1 << 4, board.getWinningActionsMask(Constants.COMP_MOVE));
+    }
+
+    /**
+     * Tests if the non-losing actions leave out moves below an opponent's winning position and only block
+     * when the opponent can already win.
+     */
+    @Test
+    public void testGetNonLosingActionsMask() {
+        int allColumns = (1 << Constants.NUM_COLS) - 1;
+        board = new Board();
+        Assert.assertEquals("Every column should be safe on an empty board.",
+                allColumns, board.getNonLosingActionsMask(Constants.USER_MOVE));
+
+        // The computer's diagonal from column 1 is missing its top disc in column 4, one row above the next empty row.
+        drop(Constants.COMP_MOVE, 1);
+        drop(Constants.USER_MOVE, 2);
+        drop(Constants.COMP_MOVE, 2);
+        drop(Constants.USER_MOVE, 3);
+        drop(Constants.USER_MOVE, 3);
+        drop(Constants.COMP_MOVE, 3);
+        drop(Constants.USER_MOVE, 4);
+        drop(Constants.USER_MOVE, 4);
+        Assert.assertEquals("Playing below the computer's winning position should not be safe for the user.",
+                allColumns & ~(1 << 4), board.getNonLosingActionsMask(Constants.USER_MOVE));
+
+        // Three user discs in column 0 force the computer to block there.
+        board = new Board();
+        for (int i = 0; i < 3; i++) {
+            drop(Constants.USER_MOVE, 0);
+        }
+        Assert.assertEquals("The computer should only be able to block the user's win.",
+                1, board.getNonLosingActionsMask(Constants.COMP_MOVE));
+        drop(Constants.USER_MOVE, 2);
+        drop(Constants.USER_MOVE, 3);
+        drop(Constants.USER_MOVE, 4);
+        Assert.assertEquals("The computer should not be able to block two winning moves.",
+                0, board.getNonLosingActionsMask(Constants.COMP_MOVE));
+    }
+}
@@ -0,0 +1,48 @@
+package unitTests;
+
+import model.environment.FastRandom;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class tests the FastRandom class.
+ */
+public class FastRandomTest {
+
+    /**
+     * Tests if random integers stay within the bound and every value below the bound is returned.
+     */
+    @Test
+    public void testNextIntBounds() {
+        FastRandom random = FastRandom.current();
+        boolean[] seen = new boolean[7];
+        for (int i = 0; i < 1000; i++) {
+            int value = random.nextInt(seen.length);
+            Assert.assertTrue("The random integer is outside the bound.", value >= 0 && value < seen.length);
+            seen[value] = true;
+        }
+        for (int value = 0; value < seen.length; value++) {
+            Assert.assertTrue("Every value below the bound should be returned.", seen[value]);
+        }
+    }
+
+    /**
+     * Tests if setting the same seed repeats the same sequence of random numbers.
+     */
+    @Test
+    public void testSetSeedRepeatsSequence() {
+        FastRandom.setSeed(42);
+        long[] first = new long[10];
+        for (int i = 0; i < first.length; i++) {
+            first[i] = FastRandom.current().nextLong();
+        }
+        FastRandom.setSeed(42);
+        for (int i = 0; i < first.length; i++) {
+            Assert.assertEquals("The same seed should repeat the same sequence.",
+                    first[i], FastRandom.current().nextLong());
+        }
+        FastRandom.setSeed(43);
+        Assert.assertNotEquals("A different seed should give a different sequence.",
+                first[0], FastRandom.current().nextLong());
+    }
+}
@@ -65,4 +65,26 @@ public class GameStateTest {
         Assert.assertSame("getAllPossibleNextStates did not return the correct number of states",
                 7, gameState.getAllPossibleNextStates().size());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests if GameState.tacticalPlay takes an immediate win, and otherwise blocks the opponent's immediate win.
+     */
+    @Test
+    public void testTacticalPlay() {
+        setUpGameState();
+        for (int i = 0; i < 3; i++) {
+            board.performMove(Constants.USER_MOVE, 1, board.getNextEmptyRow(1));
+            board.performMove(Constants.COMP_MOVE, 5, board.getNextEmptyRow(5));
+        }
+        gameState.setPlayerNum(Constants.COMP_MOVE);
+        Assert.assertEquals("The computer should take its immediate win.", 5, gameState.tacticalPlay());
+        Assert.assertEquals("The winning move should end the game.",
+                Constants.COMP_WIN, board.checkStatus(), 0);
+        gameState.undoMove();
+
+        board.undoMove(5);
+        Assert.assertEquals("The computer should block the user's immediate win.", 1, gameState.tacticalPlay());
+        Assert.assertEquals("The blocking move should keep the game in progress.",
+                Constants.IN_PROGRESS, board.checkStatus(), 0);
+    }
+}
@@ -5,11 +5,22 @@ import model.environment.Board;
 import model.environment.GameState;
 import model.montecarlotreesearch.MCTSAlgorithm;
 import model.montecarlotreesearch.MCTSTreeNode;
+import model.montecarlotreesearch.ParallelMode;
+import model.montecarlotreesearch.PlayoutPolicy;
+import org.junit.After;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -21,6 +32,43 @@ public class MCTSAlgorithmTest {
     private Board board;
     private MCTSTreeNode node;
 
+    /**
+     * Resets every MCTS setting to its default before each test, searching on a single thread so the
+     * tests do not depend on the number of processors.
+     */
+    @Before
+    public void setUpSettings() {
+        resetSettings();
+        MCTSAlgorithm.setThreadCount(1);
+    }
+
+    /**
+     * Resets every MCTS setting to its default after each test, so no test changes the settings of later tests.
+     */
+    @After
+    public void tearDownSettings() {
+        resetSettings();
+    }
+
+    /**
+     * Sets every MCTS setting to its default value.
+     */
+    private static void resetSettings() {
+        MCTSAlgorithm.setIterations(Constants.ITERATIONS);
+        MCTSAlgorithm.setThreadCount(Constants.THREADS);
+        MCTSAlgorithm.setParallelMode(ParallelMode.ROOT);
+        MCTSAlgorithm.setUseSymmetry(false);
+        MCTSAlgorithm.setUseTranspositions(false);
+        MCTSAlgorithm.setUseCompactTree(false);
+        MCTSAlgorithm.setUseLazyExpansion(false);
+        MCTSAlgorithm.setUseRave(false);
+        MCTSAlgorithm.setUseSolver(false);
+        MCTSAlgorithm.setOpeningBook(null);
+        MCTSAlgorithm.setMaxNodes(Constants.MAX_NODES);
+        MCTSAlgorithm.setPlayoutPolicy(PlayoutPolicy.RANDOM);
+        MCTSAlgorithm.setPlayoutCutoff(0);
+    }
+
     /**
      * Initializes an MCTS Tree Node that contains a board where the user has placed a disc in the middle, bottom row
      * of the board.
@@ -201,4 +249,446 @@ public class MCTSAlgorithmTest {
         Assert.assertNotSame("The simulateRandomPlayout method should not return a game status of still in progress.",
                 Constants.IN_PROGRESS, resultingGameStatus);
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that simulating a playout from a game state finishes the game and leaves the game state unchanged.
+     */
+    @Test
+    public void testSimulateRandomPlayoutRewindsState() {
+        setUpMCTSTreeNode();
+        GameState state = new GameState(node.getGameState());
+        double resultingGameStatus = MCTSAlgorithm.simulateRandomPlayout(state);
+        Assert.assertNotEquals("The simulateRandomPlayout method should not return a game status of still in progress.",
+                Constants.IN_PROGRESS, resultingGameStatus, 0);
+        Assert.assertEquals("The playout should leave the game state unchanged.", node.getGameState(), state);
+        Assert.assertEquals("The playout should leave the move count unchanged.",
+                1, state.getBoard().getTotalMoves());
+    }
+
+    /**
+     * Tests if expanding a symmetric node with symmetry enabled only creates successors up to the middle column,
+     * and if the mirrored successor is found and reflected when the game moves to the mirror image.
+     */
+    @Test
+    public void testExpandNodeWithSymmetry() {
+        setUpMCTSTreeNode();
+        MCTSAlgorithm.setUseSymmetry(true);
+        MCTSAlgorithm.expandNode(node);
+        Assert.assertEquals("A symmetric node should only be expanded up to the middle column.",
+                (Constants.NUM_COLS + 1) / 2, node.getSuccessorStates().size());
+
+        Board rightBoard = new Board(board);
+        rightBoard.performMove(Constants.COMP_MOVE, Constants.NUM_COLS - 1, Constants.NUM_ROWS - 1);
+        MCTSTreeNode successor = MCTSAlgorithm.findSuccessor(node, rightBoard);
+        Assert.assertNotNull("The mirror image of the board should be found.", successor);
+        Assert.assertEquals("The found successor should be reflected to match the board.",
+                rightBoard, successor.getGameState().getBoard());
+        Assert.assertEquals("The reflected successor should have the key of the board.",
+                rightBoard.getKey(), successor.getGameState().getKey());
+    }
+
+    /**
+     * Tests that a root parallel search merges the root and successor statistics of every thread's tree
+     * into the shared root.
+     */
+    @Test
+    public void testFindNextMoveRootParallel() {
+        setUpMCTSTreeNode();
+        MCTSAlgorithm.setIterations(200);
+        MCTSAlgorithm.setThreadCount(3);
+        MCTSAlgorithm.setParallelMode(ParallelMode.ROOT);
+        int column = MCTSAlgorithm.findNextMove(node);
+        Assert.assertTrue("The column to move into is not a valid column.",
+                column >= 0 && column < Constants.NUM_COLS);
+        Assert.assertEquals("The root should hold the playouts of every thread's tree.",
+                3 * 200 * Constants.SIMULATIONS, node.getVisitCount());
+        Assert.assertEquals("The successors of the trees should be merged into one successor per move.",
+                Constants.NUM_COLS, node.getSuccessorStates().size());
+        int successorVisits = 0;
+        int successorResults = 0;
+        for (MCTSTreeNode successor : node.getSuccessorStates()) {
+            successorVisits += successor.getVisitCount();
+            successorResults += successor.getCompWins() + successor.getUserWins() + successor.getDraws();
+        }
+        // Each tree sends every playout through one of its root's successors, so the merged successors
+        // only hold every playout if the statistics of each successor were summed over all the trees.
+        Assert.assertEquals("The successors should hold the playouts of every thread's tree.",
+                node.getVisitCount(), successorVisits);
+        Assert.assertEquals("Every merged playout should be counted as a win, loss, or draw.",
+                successorVisits, successorResults);
+    }
+
+    /**
+     * Tests that a tree parallel search counts every playout from every thread in the shared tree
+     * and removes all virtual losses once the search is finished.
+     */
+    @Test
+    public void testFindNextMoveTreeParallel() {
+        setUpMCTSTreeNode();
+        MCTSAlgorithm.setIterations(200);
+        MCTSAlgorithm.setThreadCount(3);
+        MCTSAlgorithm.setParallelMode(ParallelMode.TREE);
+        // Expand the root first so every playout starts below one of its successors.
+        MCTSAlgorithm.expandNode(node);
+        int column = MCTSAlgorithm.findNextMove(node);
+        Assert.assertTrue("The column to move into is not a valid column.",
+                column >= 0 && column < Constants.NUM_COLS);
+        Assert.assertEquals("The root should be visited once for each playout of each thread.",
+                3 * 200 * Constants.SIMULATIONS, node.getVisitCount());
+        int successorVisits = 0;
+        for (MCTSTreeNode successor : node.getSuccessorStates()) {
+            successorVisits += successor.getVisitCount();
+            Assert.assertEquals("No virtual losses should remain after the search.", 0, successor.getVirtualLosses());
+        }
+        Assert.assertEquals("Every playout should pass through one of the root's successors.",
+                node.getVisitCount(), successorVisits);
+    }
+
+    /**
+     * Tests that a leaf parallel search backpropagates every simulation of every iteration exactly once.
+     */
+    @Test
+    public void testFindNextMoveLeafParallel() {
+        setUpMCTSTreeNode();
+        MCTSAlgorithm.setIterations(100);
+        MCTSAlgorithm.setThreadCount(2);
+        MCTSAlgorithm.setParallelMode(ParallelMode.LEAF);
+        MCTSAlgorithm.findNextMove(node);
+        Assert.assertEquals("Each thread should run a batch of simulations in every iteration.",
+                2 * Constants.LEAF_SIMULATIONS_PER_THREAD, MCTSAlgorithm.getSimulationsPerIteration());
+        Assert.assertEquals("The root should be visited once for each simulation of each iteration.",
+                100 * MCTSAlgorithm.getSimulationsPerIteration(), node.getVisitCount());
+        Assert.assertEquals("Every visit should end in a computer win, user win, or draw.",
+                node.getVisitCount(), node.getCompWins() + node.getUserWins() + node.getDraws());
+    }
+
+    /**
+     * Tests that a leaf parallel search runs at least as many simulations as a serial search in the same
+     * time, so handing the playouts to the worker threads costs less than it gains.
+     */
+    @Test
+    public void testLeafParallelSimulatesAsFastAsSerial() {
+        setUpMCTSTreeNode();
+        MCTSAlgorithm.findNextMove(node, 100);
+        int serialVisits = node.getVisitCount();
+
+        setUpMCTSTreeNode();
+        MCTSAlgorithm.setThreadCount(2);
+        MCTSAlgorithm.setParallelMode(ParallelMode.LEAF);
+        MCTSAlgorithm.findNextMove(node, 100);
+        Assert.assertTrue("A leaf parallel search should not simulate fewer playouts than a serial search.",
+                node.getVisitCount() >= serialVisits);
+    }
+
+    /**
+     * Tests that a time budgeted search returns a valid column once the budget runs out and reports
+     * the number of iterations it conducted.
+     */
+    @Test
+    public void testFindNextMoveWithTimeBudget() {
+        setUpMCTSTreeNode();
+        long start = System.nanoTime();
+        int column = MCTSAlgorithm.findNextMove(node, 50);
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+        Assert.assertTrue("The column to move into is not a valid column.",
+                column >= 0 && column < Constants.NUM_COLS);
+        Assert.assertTrue("The search should run for at least the time budget.", elapsedMillis >= 50);
+        Assert.assertTrue("The search should conduct at least one iteration.",
+                MCTSAlgorithm.getLastIterationCount() > 0);
+        Assert.assertEquals("Every iteration should add one visit per simulation to the root.",
+                MCTSAlgorithm.getLastIterationCount() * Constants.SIMULATIONS, node.getVisitCount());
+    }
+
+    /**
+     * Tests that a search with a time budget of zero is rejected rather than searching without a limit.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindNextMoveRejectsZeroTimeBudget() {
+        setUpMCTSTreeNode();
+        MCTSAlgorithm.findNextMove(node, 0);
+    }
+
+    /**
+     * Tests if a search with transpositions shares a single node between positions reached through different
+     * orders of moves.
+     */
+    @Test
+    public void testFindNextMoveWithTranspositions() {
+        setUpMCTSTreeNode();
+        MCTSAlgorithm.setIterations(2000);
+        MCTSAlgorithm.setUseTranspositions(true);
+        MCTSAlgorithm.findNextMove(node);
+        Map<MCTSTreeNode, Integer> parentCounts = new IdentityHashMap<>();
+        Set<GameState> states = new HashSet<>();
+        Deque<MCTSTreeNode> nodes = new ArrayDeque<>();
+        nodes.push(node);
+        parentCounts.put(node, 0);
+        while (!nodes.isEmpty()) {
+            MCTSTreeNode current = nodes.pop();
+            Assert.assertTrue("Two nodes should not contain the same game state.",
+                    states.add(current.getGameState()));
+            for (MCTSTreeNode successor : current.getSuccessorStates()) {
+                if (parentCounts.merge(successor, 1, Integer::sum) == 1) {
+                    nodes.push(successor);
+                }
+            }
+        }
+        Assert.assertTrue("At least one node should be shared by two parents.",
+                parentCounts.values().stream().anyMatch(count -> count > 1));
+        Assert.assertEquals("Every iteration should add one visit per simulation to the root.",
+                2000 * Constants.SIMULATIONS, node.getVisitCount());
+    }
+
+    /**
+     * Tests if a search with a compact tree adds its statistics to the root and each of the root's successors.
+     */
+    @Test
+    public void testFindNextMoveWithCompactTree() {
+        setUpMCTSTreeNode();
+        MCTSAlgorithm.setIterations(500);
+        MCTSAlgorithm.setUseCompactTree(true);
+        int column = MCTSAlgorithm.findNextMove(node);
+        Assert.assertTrue("The column to move into is not a valid column.",
+                column >= 0 && column < Constants.NUM_COLS);
+        Assert.assertEquals("Every iteration should add one visit per simulation to the root.",
+                500 * Constants.SIMULATIONS, node.getVisitCount());
+        Assert.assertEquals("The root should have a successor for each column.",
+                Constants.NUM_COLS, node.getSuccessorStates().size());
+        int successorVisits = 0;
+        for (MCTSTreeNode successor : node.getSuccessorStates()) {
+            Assert.assertSame("Each successor's parent should be the root.", node, successor.getParentNode());
+            successorVisits += successor.getVisitCount();
+        }
+        Assert.assertEquals("Every visit to the root should pass through one of its successors.",
+                node.getVisitCount(), successorVisits);
+    }
+
+    /**
+     * Tests if advancing the root promotes the matching successor with its statistics and detaches it from
+     * the rest of the tree.
+     */
+    @Test
+    public void testAdvanceRoot() {
+        setUpMCTSTreeNode();
+        MCTSAlgorithm.setIterations(2000);
+        MCTSAlgorithm.setUseTranspositions(true);
+        int column = MCTSAlgorithm.findNextMove(node);
+        Board nextBoard = new Board(node.getGameState().getBoard());
+        nextBoard.performMove(Constants.COMP_MOVE, column, nextBoard.getNextEmptyRow(column));
+        MCTSTreeNode successor = MCTSAlgorithm.findSuccessor(node, nextBoard);
+
+        MCTSTreeNode newRoot = MCTSAlgorithm.advanceRoot(node, nextBoard);
+        Assert.assertSame("The matching successor should become the new root.", successor, newRoot);
+        Assert.assertNull("The new root should be detached from the old root.", newRoot.getParentNode());
+        Assert.assertEquals("The reused visits should be the visits of the new root.",
+                newRoot.getVisitCount(), MCTSAlgorithm.getLastReusedVisitCount());
+        Assert.assertTrue("The new root should keep the visits from the search.", newRoot.getVisitCount() > 0);
+
+        Set<MCTSTreeNode> reachable = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<MCTSTreeNode> nodes = new ArrayDeque<>();
+        nodes.push(newRoot);
+        reachable.add(newRoot);
+        while (!nodes.isEmpty()) {
+            for (MCTSTreeNode next : nodes.pop().getSuccessorStates()) {
+                if (reachable.add(next)) {
+                    nodes.push(next);
+                }
+            }
+        }
+        for (MCTSTreeNode reachableNode : reachable) {
+            Assert.assertTrue("No node should keep a parent outside the new tree.",
+                    reachableNode == newRoot || reachable.contains(reachableNode.getParentNode()));
+        }
+        Assert.assertEquals("The transposition table should only hold the nodes below the new root.",
+                reachable.size(), newRoot.getTranspositionTable().size());
+
+        Board unexploredBoard = new Board(nextBoard);
+        unexploredBoard.performMove(Constants.USER_MOVE, 0, unexploredBoard.getNextEmptyRow(0));
+        unexploredBoard.performMove(Constants.COMP_MOVE, 0, unexploredBoard.getNextEmptyRow(0));
+        MCTSTreeNode orphan = MCTSAlgorithm.advanceRoot(newRoot, unexploredBoard);
+        Assert.assertEquals("A root created for an unexplored board should contain the board.",
+                unexploredBoard, orphan.getGameState().getBoard());
+        Assert.assertEquals("A root created for an unexplored board should have no reused visits.",
+                0, MCTSAlgorithm.getLastReusedVisitCount());
+    }
+
+    /**
+     * Tests if a search with a node budget keeps the tree within the budget while still visiting the root
+     * once per simulation.
+     */
+    @Test
+    public void testFindNextMoveWithMaxNodes() {
+        setUpMCTSTreeNode();
+        MCTSAlgorithm.setIterations(2000);
+        MCTSAlgorithm.setMaxNodes(200);
+        MCTSAlgorithm.findNextMove(node);
+        int nodeCount = 0;
+        Deque<MCTSTreeNode> nodes = new ArrayDeque<>();
+        nodes.push(node);
+        while (!nodes.isEmpty()) {
+            nodeCount++;
+            nodes.pop().getSuccessorStates().forEach(nodes::push);
+        }
+        Assert.assertTrue("The tree should not hold more nodes than the budget.", nodeCount <= 200);
+        Assert.assertEquals("Every iteration should add one visit per simulation to the root.",
+                2000 * Constants.SIMULATIONS, node.getVisitCount());
+        Assert.assertEquals("The root should not be collapsed.",
+                Constants.NUM_COLS, node.getSuccessorStates().size());
+    }
+
+    /**
+     * Tests if a search with lazy expansion adds at most one node per iteration below the fully expanded root.
+     */
+    @Test
+    public void testFindNextMoveWithLazyExpansion() {
+        setUpMCTSTreeNode();
+        MCTSAlgorithm.setIterations(300);
+        MCTSAlgorithm.setUseLazyExpansion(true);
+        int column = MCTSAlgorithm.findNextMove(node);
+        Assert.assertTrue("The column to move into is not a valid column.",
+                column >= 0 && column < Constants.NUM_COLS);
+        Assert.assertEquals("The root should be fully expanded.",
+                Constants.NUM_COLS, node.getSuccessorStates().size());
+        int nodeCount = 0;
+        Deque<MCTSTreeNode> nodes = new ArrayDeque<>();
+        nodes.push(node);
+        while (!nodes.isEmpty()) {
+            MCTSTreeNode current = nodes.pop();
+            nodeCount++;
+            Set<Integer> columns = new HashSet<>();
+            for (MCTSTreeNode successor : current.getSuccessorStates()) {
+                Assert.assertTrue("A node should not have two successors for the same move.",
+                        columns.add(MCTSAlgorithm.getColumnToMoveInto(current.getGameState().getBoard(),
+                                successor.getGameState().getBoard())));
+                nodes.push(successor);
+            }
+        }
+        Assert.assertTrue("Each iteration should add at most one node.",
+                nodeCount <= 1 + Constants.NUM_COLS + 300);
+        Assert.assertEquals("Every iteration should add one visit per simulation to the root.",
+                300 * Constants.SIMULATIONS, node.getVisitCount());
+    }
+
+    /**
+     * Tests if a subtree grown with lazy expansion and reflected to match the mirror image of a move keeps
+     * expanding the moves it has not tried, rather than adding a second successor for a move it has.
+     */
+    @Test
+    public void testFindNextMoveWithLazyExpansionAndSymmetry() {
+        setUpMCTSTreeNode();
+        MCTSAlgorithm.setIterations(300);
+        MCTSAlgorithm.setUseLazyExpansion(true);
+        MCTSAlgorithm.setUseSymmetry(true);
+        MCTSAlgorithm.findNextMove(node);
+        // The search only expands the left half of the symmetric root, so this move reflects a subtree.
+        board.performMove(Constants.COMP_MOVE, Constants.NUM_COLS - 1, board.getNextEmptyRow(Constants.NUM_COLS - 1));
+        MCTSTreeNode root = MCTSAlgorithm.advanceRoot(node, board);
+        board.performMove(Constants.USER_MOVE, 3, board.getNextEmptyRow(3));
+        root = MCTSAlgorithm.advanceRoot(root, board);
+        MCTSAlgorithm.findNextMove(root);
+
+        Deque<MCTSTreeNode> nodes = new ArrayDeque<>();
+        nodes.push(root);
+        while (!nodes.isEmpty()) {
+            MCTSTreeNode current = nodes.pop();
+            Set<Integer> columns = new HashSet<>();
+            for (MCTSTreeNode successor : current.getSuccessorStates()) {
+                Assert.assertTrue("A node should not have two successors for the same move.",
+                        columns.add(MCTSAlgorithm.getColumnToMoveInto(current.getGameState().getBoard(),
+                                successor.getGameState().getBoard())));
+                nodes.push(successor);
+            }
+        }
+    }
+
+    /**
+     * Tests if a search with RAVE counts every simulation through a successor in the root's all-moves-as-first
+     * statistics of the successor's column.
+     */
+    @Test
+    public void testFindNextMoveWithRave() {
+        setUpMCTSTreeNode();
+        MCTSAlgorithm.setIterations(500);
+        MCTSAlgorithm.setUseRave(true);
+        int column = MCTSAlgorithm.findNextMove(node);
+        Assert.assertTrue("The column to move into is not a valid column.",
+                column >= 0 && column < Constants.NUM_COLS);
+        Assert.assertEquals("Every iteration should add one visit per simulation to the root.",
+                500 * Constants.SIMULATIONS, node.getVisitCount());
+        for (MCTSTreeNode successor : node.getSuccessorStates()) {
+            int successorColumn = node.getGameState().getBoard().findMoveColumn(successor.getGameState().getBoard());
+            Assert.assertTrue("The RAVE statistics of a column should count every simulation through its successor.",
+                    node.getAmafVisitCount(successorColumn) >= successor.getVisitCount());
+        }
+    }
+
+    /**
+     * Tests if a playout stopped by the cutoff returns an estimated result and leaves the state unchanged.
+     */
+    @Test
+    public void testSimulateRandomPlayoutWithCutoff() {
+        setUpMCTSTreeNode();
+        MCTSAlgorithm.setPlayoutCutoff(2);
+        GameState state = new GameState(node.getGameState());
+        for (int i = 0; i < 100; i++) {
+            double result = MCTSAlgorithm.simulateRandomPlayout(state);
+            Assert.assertTrue("The playout should return a win for either player or a draw.",
+                    result == Constants.COMP_WIN || result == Constants.USER_WIN || result == Constants.DRAW_SCORE);
+        }
+        Assert.assertEquals("The playout should rewind the state.", node.getGameState(), state);
+        Assert.assertEquals("Two moves after the first disc should still be in progress.",
+                1, state.getBoard().getTotalMoves());
+    }
+
+    /**
+     * Tests if a search with the solver proves an immediate computer win and stops before the iteration limit.
+     */
+    @Test
+    public void testFindNextMoveWithSolverProvesWin() {
+        board = new Board();
+        for (int i = 0; i < 3; i++) {
+            board.performMove(Constants.COMP_MOVE, 5, board.getNextEmptyRow(5));
+            board.performMove(Constants.USER_MOVE, 0, board.getNextEmptyRow(0));
+        }
+        node = new MCTSTreeNode(new GameState(board));
+        MCTSAlgorithm.setIterations(2000);
+        MCTSAlgorithm.setUseSolver(true);
+        Assert.assertEquals("The computer should take its immediate win.", 5, MCTSAlgorithm.findNextMove(node));
+        Assert.assertEquals("The root should be proven as a computer win.",
+                Constants.COMP_WIN, node.getProvenScore(), 0);
+        Assert.assertTrue("The search should stop once the root is proven.",
+                MCTSAlgorithm.getLastIterationCount() < 2000);
+        Assert.assertEquals("A proven root should be answered without searching.", 5, MCTSAlgorithm.findNextMove(node));
+        Assert.assertEquals("A proven root should not conduct any iterations.", 0, MCTSAlgorithm.getLastIterationCount());
+
+        // A proven root collapsed by pruning has to find its proven successors again.
+        node.collapse();
+        Assert.assertEquals("A collapsed proven root should still find its win.", 5, MCTSAlgorithm.findNextMove(node));
+        Assert.assertEquals("The collapsed root should be proven again.",
+                Constants.COMP_WIN, node.getProvenScore(), 0);
+    }
+
+    /**
+     * Tests if a search with the solver proves the moves that allow an immediate user win and blocks instead.
+     */
+    @Test
+    public void testFindNextMoveWithSolverBlocksLoss() {
+        board = new Board();
+        board.performMove(Constants.COMP_MOVE, 6, board.getNextEmptyRow(6));
+        for (int i = 0; i < 3; i++) {
+            board.performMove(Constants.USER_MOVE, 1, board.getNextEmptyRow(1));
+        }
+        board.performMove(Constants.COMP_MOVE, 4, board.getNextEmptyRow(4));
+        node = new MCTSTreeNode(new GameState(board));
+        MCTSAlgorithm.setIterations(3000);
+        MCTSAlgorithm.setUseSolver(true);
+        Assert.assertEquals("The computer should block the user's immediate win.", 1, MCTSAlgorithm.findNextMove(node));
+        for (MCTSTreeNode successor : node.getSuccessorStates()) {
+            int column = board.findMoveColumn(successor.getGameState().getBoard());
+            if (column != 1) {
+                Assert.assertEquals("A move that does not block should be proven as a user win.",
+                        Constants.USER_WIN, successor.getProvenScore(), 0);
+            }
+        }
+    }
+}
@@ -149,4 +149,25 @@ public class MCTSTreeNodeTest {
         Assert.assertTrue("The getSuccessorWithMaxScore did not return the node with the best average state score.",
                 node.getSuccessorWithMaxScore().equals(node1));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests if mirroring a node moves the all-moves-as-first statistics of each column to its mirror image column.
+     */
+    @Test
+    public void testMirrorAmafStatistics() {
+        setUpMCTSTreeNode();
+        node.addAmafResult(1 << 0, Constants.COMP_WIN);
+        node.addAmafResult(1 << 0 | 1 << 2, Constants.USER_WIN);
+        node.addAmafResult(1 << 3, Constants.DRAW_SCORE);
+        node.mirror();
+
+        int last = Constants.NUM_COLS - 1;
+        Assert.assertEquals("The statistics of column 0 should move to the last column.", 2, node.getAmafVisitCount(last));
+        Assert.assertEquals("The average score should move with the statistics.",
+                (Constants.COMP_WIN + Constants.USER_WIN) / 2, node.getAmafAverageScore(last), 1e-9);
+        Assert.assertEquals("The statistics of column 2 should move to its mirror image column.",
+                1, node.getAmafVisitCount(last - 2));
+        Assert.assertEquals("The middle column should keep its statistics.", 1, node.getAmafVisitCount(3));
+        Assert.assertEquals("Column 0 should take the empty statistics of the last column.", 0, node.getAmafVisitCount(0));
+    }
+}
@@ -0,0 +1,158 @@
+package unitTests;
+
+import application.Constants;
+import model.environment.Board;
+import model.environment.GameState;
+import model.montecarlotreesearch.MCTSAlgorithm;
+import model.montecarlotreesearch.MCTSTreeNode;
+import model.solver.NegamaxSolver;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * This class tests the NegamaxSolver class.
+ */
+public class NegamaxSolverTest {
+
+    private static final int CAPACITY = Constants.NUM_COLS * Constants.NUM_ROWS;
+
+    private Board board;
+
+    /**
+     * Places a disc for the given player in the next empty row of the given column.
+     *
+     * @param player the player who places the disc.
+     * @param column the column to place the disc into.
+     */
+    private void drop(int player, int column) {
+        board.performMove(player, column, board.getNextEmptyRow(column));
+    }
+
+    /**
+     * Returns the other player.
+     *
+     * @param player the player.
+     * @return the opponent of the player.
+     */
+    private static int opponentOf(int player) {
+        return player == Constants.USER_MOVE ? Constants.COMP_MOVE : Constants.USER_MOVE;
+    }
+
+    /**
+     * Finds the score of the board for the player to move by searching every line of play to the end.
+     *
+     * @param player the player to move.
+     * @return the score of the position, using the same scale as the solver.
+     */
+    private int bruteForceScore(int player) {
+        int moves = board.getTotalMoves();
+        int best = Integer.MIN_VALUE;
+        for (int column = 0; column < Constants.NUM_COLS; column++) {
+            if (board.getNextEmptyRow(column) < 0) {
+                continue;
+            }
+            drop(player, column);
+            double status = board.checkStatus();
+            int score;
+            if (status == Constants.DRAW_SCORE) {
+                score = 0;
+            } else if (status != Constants.IN_PROGRESS) {
+                score = (CAPACITY + 1 - moves) / 2;
+            } else {
+                score = -bruteForceScore(opponentOf(player));
+            }
+            board.undoMove(column);
+            best = Math.max(best, score);
+        }
+        return best;
+    }
+
+    /**
+     * Tests if a position with a winning move is scored as a win with the next disc, and if the solver
+     * finds a winning move.
+     */
+    @Test
+    public void testSolveImmediateWin() {
+        board = new Board();
+        for (int column = 2; column < 5; column++) {
+            drop(Constants.COMP_MOVE, column);
+        }
+        drop(Constants.USER_MOVE, 2);
+        drop(Constants.USER_MOVE, 3);
+        GameState state = new GameState(board);
+        state.setPlayerNum(Constants.USER_MOVE);
+        NegamaxSolver solver = new NegamaxSolver(16);
+
+        Assert.assertEquals("The computer should be scored as winning with its next disc.",
+                (CAPACITY + 1 - board.getTotalMoves()) / 2, solver.solve(state));
+        int column = solver.findBestMove(state);
+        Assert.assertTrue("The solver should complete the line of four.", column == 1 || column == 5);
+        Assert.assertEquals("The solve should not change the game state's board.", 5, board.getTotalMoves());
+    }
+
+    /**
+     * Tests if the solver agrees with a full search on random positions near the end of the game, and if
+     * it reports the positions it searched.
+     */
+    @Test
+    public void testSolveMatchesBruteForce() {
+        Random random = new Random(24);
+        NegamaxSolver solver = new NegamaxSolver(16);
+        int solved = 0;
+        while (solved < 8) {
+            // Play random moves until few empty positions remain, starting again if the game ends first.
+            board = new Board();
+            int player = Constants.USER_MOVE;
+            while (board.getTotalMoves() < CAPACITY - 9 && board.checkStatus() == Constants.IN_PROGRESS) {
+                int column = random.nextInt(Constants.NUM_COLS);
+                if (board.getNextEmptyRow(column) >= 0) {
+                    drop(player, column);
+                    player = opponentOf(player);
+                }
+            }
+            if (board.checkStatus() != Constants.IN_PROGRESS) {
+                continue;
+            }
+            GameState state = new GameState(board);
+            state.setPlayerNum(opponentOf(player));
+
+            int expected = bruteForceScore(player);
+            Assert.assertEquals("The solver should agree with a full search on\n" + board,
+                    expected, solver.solve(state));
+            Assert.assertTrue("The solver should count the positions it searched.", solver.getNodeCount() > 0);
+
+            // The best move should keep the score of the position.
+            int column = solver.findBestMove(state);
+            drop(player, column);
+            int score = board.checkStatus() == Constants.IN_PROGRESS ? -bruteForceScore(opponentOf(player))
+                    : board.checkStatus() == Constants.DRAW_SCORE ? 0 : (CAPACITY + 2 - board.getTotalMoves()) / 2;
+            Assert.assertEquals("The best move should keep the score of the position.", expected, score);
+            solved++;
+        }
+    }
+
+    /**
+     * Tests if the solver moves for the computer in the root reached by playing a game through
+     * advanceRoot, where the roots are created without being searched.
+     */
+    @Test
+    public void testFindBestMoveAfterAdvanceRoot() {
+        board = new Board();
+        MCTSTreeNode root = new MCTSTreeNode(new GameState(board));
+        // The user moves first, so the empty board is marked as if the computer made the last move.
+        root.getGameState().setPlayerNum(Constants.COMP_MOVE);
+        int[] columns = {0, 6, 0, 6, 0, 6, 1};
+        int player = Constants.USER_MOVE;
+        for (int column : columns) {
+            drop(player, column);
+            root = MCTSAlgorithm.advanceRoot(root, board);
+            player = opponentOf(player);
+        }
+        Assert.assertEquals("The computer should be to move in the root.",
+                Constants.COMP_MOVE, root.getGameState().getOpponent());
+        Assert.assertEquals("The computer should complete its line of four rather than block the user.",
+                6, new NegamaxSolver(16).findBestMove(root.getGameState()));
+    }
+}
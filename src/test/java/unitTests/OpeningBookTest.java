@@ -0,0 +1,119 @@
+package unitTests;
+
+import application.Constants;
+import model.book.OpeningBook;
+import model.book.OpeningBookGenerator;
+import model.environment.Board;
+import model.environment.GameState;
+import model.montecarlotreesearch.MCTSAlgorithm;
+import model.montecarlotreesearch.MCTSTreeNode;
+import model.solver.NegamaxSolver;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * This class tests the OpeningBook and OpeningBookGenerator classes.
+ */
+public class OpeningBookTest {
+
+    /**
+     * Plays random moves, with the user moving first, until thirteen empty positions remain and the computer
+     * is to move, starting again whenever the game ends first.
+     *
+     * @return the board of the position.
+     */
+    private static Board createLatePosition() {
+        Random random = new Random(25);
+        while (true) {
+            Board board = new Board();
+            int player = Constants.USER_MOVE;
+            while (board.getTotalMoves() < Constants.NUM_COLS * Constants.NUM_ROWS - 13
+                    && board.checkStatus() == Constants.IN_PROGRESS) {
+                int column = random.nextInt(Constants.NUM_COLS);
+                int row = board.getNextEmptyRow(column);
+                if (row >= 0) {
+                    board.performMove(player, column, row);
+                    player = player == Constants.USER_MOVE ? Constants.COMP_MOVE : Constants.USER_MOVE;
+                }
+            }
+            if (board.checkStatus() == Constants.IN_PROGRESS) {
+                return board;
+            }
+        }
+    }
+
+    /**
+     * Tests if a generated book holds the solver's best move and score for its positions, including
+     * mirror images, and does not hold positions outside its plies.
+     */
+    @Test
+    public void testGenerateAndFind() throws IOException {
+        Board start = createLatePosition();
+        Path file = Files.createTempFile("opening-book", ".bin");
+        try {
+            NegamaxSolver solver = new NegamaxSolver(16);
+            int count = OpeningBookGenerator.generate(file, start, Constants.COMP_MOVE, 2, solver);
+            OpeningBook book = OpeningBook.open(file);
+            Assert.assertEquals("The book should hold every position written.", count, book.size());
+            Assert.assertTrue("The book should hold the start and its mirror image, and later positions.",
+                    count > 2);
+
+            GameState state = new GameState(start);
+            state.setPlayerNum(Constants.USER_MOVE);
+            int column = solver.findBestMove(state);
+            Assert.assertEquals("The book should hold the solver's best move.",
+                    column, book.findColumn(start, Constants.COMP_MOVE));
+            Assert.assertEquals("The book should hold the exact score.",
+                    solver.solve(state), book.findScore(start, Constants.COMP_MOVE));
+            Assert.assertEquals("The book should hold the mirror image of the best move.",
+                    Constants.NUM_COLS - 1 - column, book.findColumn(start.getMirroredBoard(), Constants.COMP_MOVE));
+
+            Assert.assertEquals("Positions outside the book should not be found.",
+                    -1, book.findColumn(new Board(), Constants.COMP_MOVE));
+            Assert.assertEquals("Positions with the other player to move should not be found.",
+                    -1, book.findColumn(start, Constants.USER_MOVE));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests if the MCTS algorithm returns the book move without searching for positions in the book.
+     */
+    @Test
+    public void testFindNextMoveWithOpeningBook() throws IOException {
+        Board start = createLatePosition();
+        Path file = Files.createTempFile("opening-book", ".bin");
+        try {
+            OpeningBookGenerator.generate(file, start, Constants.COMP_MOVE, 0, new NegamaxSolver(16));
+            OpeningBook book = OpeningBook.open(file);
+            MCTSAlgorithm.setOpeningBook(book);
+            int column = MCTSAlgorithm.findNextMove(new MCTSTreeNode(new GameState(start)));
+            Assert.assertEquals("The book move should be played.", book.findColumn(start, Constants.COMP_MOVE), column);
+            Assert.assertEquals("No iterations should be searched for a book position.",
+                    0, MCTSAlgorithm.getLastIterationCount());
+        } finally {
+            MCTSAlgorithm.setOpeningBook(null);
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests if a file that is not an opening book is rejected.
+     */
+    @Test(expected = IOException.class)
+    public void testOpenRejectsOtherFiles() throws IOException {
+        Path file = Files.createTempFile("opening-book", ".bin");
+        try {
+            Files.write(file, "not an opening book".getBytes());
+            OpeningBook.open(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
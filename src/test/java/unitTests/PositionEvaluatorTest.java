@@ -0,0 +1,60 @@
+package unitTests;
+
+import application.Constants;
+import model.environment.Board;
+import model.environment.PositionEvaluator;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class tests the PositionEvaluator class.
+ */
+public class PositionEvaluatorTest {
+
+    private Board board;
+
+    /**
+     * Places a disc for the given player in the next empty row of the given column.
+     *
+     * @param player the player who places the disc.
+     * @param column the column to place the disc into.
+     */
+    private void drop(int player, int column) {
+        board.performMove(player, column, board.getNextEmptyRow(column));
+    }
+
+    /**
+     * Tests if an empty board is evaluated as a draw.
+     */
+    @Test
+    public void testEvaluateEmptyBoard() {
+        board = new Board();
+        Assert.assertEquals("An empty board should be evaluated as a draw.",
+                Constants.DRAW_SCORE, PositionEvaluator.evaluate(board, Constants.USER_MOVE), 0);
+    }
+
+    /**
+     * Tests if the player to move wins with a winning move, and if the opponent wins with two winning moves.
+     */
+    @Test
+    public void testEvaluateImmediateWins() {
+        board = new Board();
+        for (int column = 2; column < 5; column++) {
+            drop(Constants.COMP_MOVE, column);
+        }
+        drop(Constants.USER_MOVE, 2);
+        drop(Constants.USER_MOVE, 3);
+        Assert.assertEquals("The computer should win when it is to move with a winning move.",
+                Constants.COMP_WIN, PositionEvaluator.evaluate(board, Constants.COMP_MOVE), 0);
+        Assert.assertEquals("The computer should win when the user cannot block both of its winning moves.",
+                Constants.COMP_WIN, PositionEvaluator.evaluate(board, Constants.USER_MOVE), 0);
+
+        board = new Board();
+        for (int i = 0; i < 3; i++) {
+            drop(Constants.USER_MOVE, 0);
+        }
+        drop(Constants.COMP_MOVE, 6);
+        Assert.assertEquals("The user should win when it is to move with a winning move.",
+                Constants.USER_WIN, PositionEvaluator.evaluate(board, Constants.USER_MOVE), 0);
+    }
+}